@@ -2,8 +2,10 @@ package com.blog.blogger;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BloggerApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(BloggerApplication.class, args);
@@ -22,6 +22,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.blog.blogger.security.CustomUserDetailsService;
 import com.blog.blogger.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 import java.util.Arrays;
 
 @Configuration
@@ -44,6 +46,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
+            // Async dispatches of an already authorized request (SSE streams)
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             // Allow OPTIONS requests for CORS preflight
             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
             // Public endpoints
@@ -1,18 +1,28 @@
 package com.blog.blogger.controller;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.TimeSeriesPointDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.AccountDeletionJob;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.Role;
+import com.blog.blogger.models.StatsRollup;
 import com.blog.blogger.service.AdminService;
+import com.blog.blogger.service.PostFeedService;
+import com.blog.blogger.services.NotificationFanoutService;
+import com.blog.blogger.services.NotificationRetentionService;
 import org.springframework.data.domain.Page;
 
 /**
@@ -22,6 +32,7 @@ import org.springframework.data.domain.Page;
  *
  * Endpoints:
  * - GET /auth/admin/stats - Dashboard statistics
+ * - GET /auth/admin/stats/timeseries - One metric per hour or day (rollups)
  * - GET /auth/admin/users - Get all users
  * - PUT /auth/admin/users/{id}/ban - Ban a user
  * - PUT /auth/admin/users/{id}/unban - Unban a user
@@ -29,6 +40,8 @@ import org.springframework.data.domain.Page;
  * - DELETE /auth/admin/users/{id} - Delete a user
  * - GET /auth/admin/posts - Get all posts (moderation)
  * - DELETE /auth/admin/posts/{id} - Delete a post
+ * - GET /auth/admin/notifications/fanout - New-post notification queue and lag
+ * - POST /auth/admin/notifications/partition - Partition notifications by month (MySQL, one-off)
  */
 @RestController
 @RequestMapping("/auth/admin")
@@ -36,9 +49,17 @@ import org.springframework.data.domain.Page;
 public class AdminController {
 
     private final AdminService adminService;
+    private final PostFeedService postFeedService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final NotificationRetentionService notificationRetentionService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, PostFeedService postFeedService,
+            NotificationFanoutService notificationFanoutService,
+            NotificationRetentionService notificationRetentionService) {
         this.adminService = adminService;
+        this.postFeedService = postFeedService;
+        this.notificationFanoutService = notificationFanoutService;
+        this.notificationRetentionService = notificationRetentionService;
     }
 
     /**
@@ -56,6 +77,40 @@ public class AdminController {
         }
     }
 
+    /**
+     * GET /auth/admin/stats/timeseries?metric=posts&from=2025-01-01&to=2025-03-31&granularity=day
+     * Metrics: registrations, posts, comments, likes, reports, bans
+     * from and to are dates (both included); defaults to the last 30 days
+     */
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        StatsRollup.Metric parsedMetric;
+        StatsRollup.Granularity parsedGranularity;
+        try {
+            parsedMetric = StatsRollup.Metric.valueOf(metric.toUpperCase());
+            parsedGranularity = StatsRollup.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid metric or granularity"));
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        List<TimeSeriesPointDTO> points = adminService.getTimeSeries(parsedMetric, parsedGranularity,
+                start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+
+        return ResponseEntity.ok(Map.of(
+                "metric", parsedMetric,
+                "granularity", parsedGranularity,
+                "from", start,
+                "to", end,
+                "points", points));
+    }
+
     /**
      * GET /auth/admin/users
      * Get all users
@@ -149,8 +204,9 @@ public class AdminController {
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         try {
-            adminService.deleteUser(id);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            AccountDeletionJob job = adminService.deleteUser(id);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("message", "User banned, account deletion started", "jobId", job.getId()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -163,15 +219,27 @@ public class AdminController {
     /**
      * GET /auth/admin/posts
      * Get all posts (for moderation)
+     * Pass "cursor" (empty for the first page) to switch to keyset pagination
      */
     @GetMapping("/posts")
     public ResponseEntity<?> getAllPosts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            int pageSize = Math.max(1, Math.min(size, 100));
+            CursorPage<Post> cursorPage = adminService.getPostsByCursor(cursor, pageSize);
+            Map<String, Object> response = new HashMap<>();
+            response.put("posts", postFeedService.toFeed(cursorPage.getItems()));
+            response.put("nextCursor", cursorPage.getNextCursor());
+            response.put("hasMore", cursorPage.isHasMore());
+            return ResponseEntity.ok(response);
+        }
+
         Page<Post> postPage = adminService.getAllPosts(page, size);
 
         return ResponseEntity.ok(Map.of(
-                "posts", postPage.getContent(),
+                "posts", postFeedService.toFeed(postPage.getContent()),
                 "total", postPage.getTotalElements(),
                 "totalPages", postPage.getTotalPages(),
                 "currentPage", page));
@@ -227,4 +295,27 @@ public class AdminController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+
+    /**
+     * GET /auth/admin/notifications/fanout
+     * Pending new-post fan-out jobs and the delay between a post and its last notification
+     */
+    @GetMapping("/notifications/fanout")
+    public ResponseEntity<?> getNotificationFanoutStats() {
+        return ResponseEntity.ok(notificationFanoutService.getStats());
+    }
+
+    /**
+     * POST /auth/admin/notifications/partition
+     * Convert the notifications table to monthly partitions (see NotificationRetentionService)
+     */
+    @PostMapping("/notifications/partition")
+    public ResponseEntity<?> partitionNotifications() {
+        try {
+            return ResponseEntity.ok(Map.of("message", notificationRetentionService.partitionTable()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -54,7 +54,7 @@ public class AuthController {
         User saved = userService.register(user);
 
         // Generate JWT token for the newly registered user (auto-login)
-        String token = jwtUtil.generateToken(saved.getUsername());
+        String token = jwtUtil.generateToken(saved);
 
         // Create response with user info and JWT token
         AuthResponse response = new AuthResponse(
@@ -92,7 +92,7 @@ public class AuthController {
         }
 
         // Generate JWT token for the authenticated user
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user);
 
         // Create response with user info and JWT token
         AuthResponse response = new AuthResponse(
@@ -23,13 +23,19 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.blogger.dto.CreateCommentDTO;
 import com.blog.blogger.dto.CreatePostDTO;
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.PostDTO;
+import com.blog.blogger.dto.TagCountDTO;
 import com.blog.blogger.models.Comment;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.UserRepository;
 import com.blog.blogger.service.CommentService;
 import com.blog.blogger.service.FileStorageService;
+import com.blog.blogger.service.PostFeedService;
 import com.blog.blogger.service.PostService;
+import com.blog.blogger.service.TagService;
+import com.blog.blogger.service.TrendingTagService;
 
 @RestController
 @RequestMapping("/auth/posts")
@@ -47,26 +53,57 @@ public class PostController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private PostFeedService postFeedService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TrendingTagService trendingTagService;
+
     @Autowired
     private com.blog.blogger.services.NotificationService notificationService;
 
     /**
-     * Check if user is banned and throw exception if so
+     * GET /auth/posts?page=1&size=10
+     * GET /auth/posts?cursor=&size=10 (keyset mode: pass back "nextCursor", no totals)
+     * GET /auth/posts?sort=hot&page=1&size=10 (recent posts ranked by likes, comments and age)
      */
-    private void checkUserBanned(User user) {
-        if (user.getIsBanned() != null && user.getIsBanned()) {
-            throw new RuntimeException("User account is banned and cannot perform this action");
-        }
-    }
     @GetMapping()
     public ResponseEntity<Map<String, Object>> getAllPosts(
         @RequestParam(defaultValue = "1") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) String sort
 ) {
+    if ("hot".equalsIgnoreCase(sort)) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Page<Post> hotPage = postService.getHotPosts(Math.max(1, page), pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postFeedService.toFeed(hotPage.getContent()));
+        response.put("total", hotPage.getTotalElements());
+        response.put("totalPages", hotPage.getTotalPages());
+        response.put("currentPage", Math.max(1, page));
+        return ResponseEntity.ok(response);
+    }
+
+    if (cursor != null) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<Post> cursorPage = postService.getPostsByCursor(cursor, pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postFeedService.toFeed(cursorPage.getItems()));
+        response.put("nextCursor", cursorPage.getNextCursor());
+        response.put("hasMore", cursorPage.isHasMore());
+        return ResponseEntity.ok(response);
+    }
+
     Page<Post> postPage = postService.getAllPosts(page, size);
 
     Map<String, Object> response = new HashMap<>();
-    response.put("posts", postPage.getContent());
+    response.put("posts", postFeedService.toFeed(postPage.getContent()));
     response.put("total", postPage.getTotalElements());
     response.put("totalPages", postPage.getTotalPages());
     response.put("currentPage", page);
@@ -74,16 +111,71 @@ public class PostController {
     return ResponseEntity.ok(response);
 }
 
+    /**
+     * GET /auth/posts/following?page=1&size=10
+     * Get a page of the current user's home timeline (posts from followed users)
+     */
     @GetMapping("/following")
-    public ResponseEntity<List<Post>> getPostsFromFollowedUsers(
-            @AuthenticationPrincipal User currentUser) {
-        List<Post> posts = postService.getPostsFromFollowedUsers(currentUser.getUsername());
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<List<PostDTO>> getPostsFromFollowedUsers(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        List<Post> posts = postService.getPostsFromFollowedUsers(currentUser, Math.max(1, page), pageSize);
+        return ResponseEntity.ok(postFeedService.toFeed(posts));
+    }
+
+    /**
+     * GET /auth/posts/search?q=spring boot&page=1&size=10
+     * Full-text search over post titles, content and tags, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        Page<Post> postPage = postService.searchPosts(query, Math.max(1, page), pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postFeedService.toFeed(postPage.getContent()));
+        response.put("total", postPage.getTotalElements());
+        response.put("totalPages", postPage.getTotalPages());
+        response.put("currentPage", page);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/posts/tags/{tag}?cursor=&size=10
+     * Visible posts with a tag, newest first (pass back "nextCursor" for the next page)
+     */
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<Map<String, Object>> getPostsByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<Post> cursorPage = tagService.getPostsByTag(tag, cursor, pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postFeedService.toFeed(cursorPage.getItems()));
+        response.put("nextCursor", cursorPage.getNextCursor());
+        response.put("hasMore", cursorPage.isHasMore());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/posts/tags/trending?limit=10
+     * Tags used by the most posts over the trending window
+     */
+    @GetMapping("/tags/trending")
+    public ResponseEntity<List<TagCountDTO>> getTrendingTags(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingTagService.getTrending(limit));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Post> getPostById(@PathVariable Long id) {
-        return postService.getPostById(id)
+        return postService.getPostForDisplay(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -91,15 +183,15 @@ public class PostController {
     @PostMapping
     public ResponseEntity<Post> createPost(@RequestBody CreatePostDTO dto,
                                            @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Post post = Post.builder()
                 .title(dto.getTitle())
                 .content(dto.getContent())
+                .tags(dto.getTags())
                 .mediaType(dto.getMediaType())
                 .mediaUrl(dto.getMediaUrl())
-                .author(currentUser)
+                // The principal only holds id, username and role, the response shows the whole author
+                .author(userRepository.findById(currentUser.getId())
+                        .orElseThrow(() -> new RuntimeException("User not found")))
                 .build();
 
         Post savedPost = postService.createPost(post);
@@ -116,9 +208,6 @@ public class PostController {
             @AuthenticationPrincipal User currentUser) {
 
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             // Validate file
             if (file == null || file.isEmpty()) {
                 throw new RuntimeException("Please select a file to upload");
@@ -165,9 +254,6 @@ public class PostController {
                                        @RequestBody CreatePostDTO dto,
                                        @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             // Get the post
             Post post = postService.getPostById(id)
                     .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
@@ -189,6 +275,7 @@ public class PostController {
             Post updatedPost = Post.builder()
                     .title(dto.getTitle())
                     .content(dto.getContent())
+                    .tags(dto.getTags()) // null keeps the current tags
                     .mediaType(dto.getMediaType())
                     .mediaUrl(dto.getMediaUrl())
                     .build();
@@ -210,9 +297,6 @@ public class PostController {
 public ResponseEntity<?> deletePost(@PathVariable Long id,
                                    @AuthenticationPrincipal User currentUser) {
     try {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-        
         // Get the post
         Post post = postService.getPostById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
@@ -250,15 +334,12 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     public ResponseEntity<?> addComment(@PathVariable Long postId,
                                            @RequestBody CreateCommentDTO dto,
                                            @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Post post = postService.getPostById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
         Comment comment = Comment.builder()
                 .content(dto.getContent())
-                .author(currentUser)
+                .author(userRepository.getReferenceById(currentUser.getId()))
                 .post(post)
                 .build();
 
@@ -305,9 +386,6 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     @PostMapping("/{id}/like")
     public ResponseEntity<Post> likePost(@PathVariable Long id,
                                          @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Post post = postService.likePost(id, currentUser);
         return ResponseEntity.ok(post);
     }
@@ -319,9 +397,6 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     @DeleteMapping("/{id}/like")
     public ResponseEntity<Post> unlikePost(@PathVariable Long id,
                                            @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Post post = postService.unlikePost(id, currentUser);
         return ResponseEntity.ok(post);
     }
@@ -337,6 +412,26 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
         return ResponseEntity.ok(liked);
     }
 
+    /**
+     * POST /auth/posts/liked
+     * Body: [1, 2, 3] - returns the subset of these post ids liked by the current user
+     */
+    @PostMapping("/liked")
+    public ResponseEntity<Map<String, List<Long>>> getLikedPosts(@RequestBody List<Long> postIds,
+                                                               @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(Map.of("liked", postService.getLikedPostIds(postIds, currentUser)));
+    }
+
+    /**
+     * POST /auth/posts/comments/liked
+     * Body: [1, 2, 3] - returns the subset of these comment ids liked by the current user
+     */
+    @PostMapping("/comments/liked")
+    public ResponseEntity<Map<String, List<Long>>> getLikedComments(@RequestBody List<Long> commentIds,
+                                                                  @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(Map.of("liked", commentService.getLikedCommentIds(commentIds, currentUser)));
+    }
+
     /**
      * POST /auth/posts/{postId}/comments/{commentId}/like
      * Like a comment (authenticated users only)
@@ -345,9 +440,6 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     public ResponseEntity<?> likeComment(@PathVariable Long postId,
                                          @PathVariable Long commentId,
                                          @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Comment comment = commentService.likeComment(commentId, currentUser);
         return ResponseEntity.ok(java.util.Map.of(
             "message", "Comment liked",
@@ -363,9 +455,6 @@ public ResponseEntity<?> deletePost(@PathVariable Long id,
     public ResponseEntity<?> unlikeComment(@PathVariable Long postId,
                                            @PathVariable Long commentId,
                                            @AuthenticationPrincipal User currentUser) {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-
         Comment comment = commentService.unlikeComment(commentId, currentUser);
         return ResponseEntity.ok(java.util.Map.of(
             "message", "Comment unliked",
@@ -394,9 +483,6 @@ public ResponseEntity<?> deleteComment(@PathVariable Long postId,
                                        @PathVariable Long commentId,
                                        @AuthenticationPrincipal User currentUser) {
     try {
-        // Check if user is banned
-        checkUserBanned(currentUser);
-        
         // Get the post
         Post post = postService.getPostById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
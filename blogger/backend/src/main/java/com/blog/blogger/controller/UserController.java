@@ -1,5 +1,6 @@
 package com.blog.blogger.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,11 +22,14 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.blog.blogger.dto.ChangePasswordDTO;
+import com.blog.blogger.dto.CursorPage;
 import com.blog.blogger.dto.UpdateProfileDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.AccountDeletionJob;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repository.UserRepository;
 import com.blog.blogger.service.FileStorageService;
+import com.blog.blogger.service.RecommendationService;
 import com.blog.blogger.service.SubscriptionService;
 import com.blog.blogger.service.UserService;
 
@@ -38,6 +42,8 @@ import com.blog.blogger.service.UserService;
  * - PUT /auth/users/{id} - Update user profile
  * - PUT /auth/users/{id}/password - Change password
  * - DELETE /auth/users/{id} - Delete user account
+ * - GET /auth/users/directory - Users with follow stats, keyset paginated
+ * - GET /auth/users/recommendations - Who to follow (friends of friends)
  */
 @RestController
 @RequestMapping("/auth/users")
@@ -47,13 +53,16 @@ public class UserController {
     private final SubscriptionService subscriptionService;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final RecommendationService recommendationService;
 
     public UserController(UserService userService, SubscriptionService subscriptionService,
-                          UserRepository userRepository, FileStorageService fileStorageService) {
+                          UserRepository userRepository, FileStorageService fileStorageService,
+                          RecommendationService recommendationService) {
         this.userService = userService;
         this.subscriptionService = subscriptionService;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
+        this.recommendationService = recommendationService;
     }
     // /////////////////////////////////////////////////////////////
 
@@ -89,14 +98,6 @@ public class UserController {
     //     }
     // }
     // ////////////////////////////////////////////////
-    /**
-     * Check if user is banned and throw exception if so
-     */
-    private void checkUserBanned(User user) {
-        if (user.getIsBanned() != null && user.getIsBanned()) {
-            throw new RuntimeException("User account is banned and cannot perform this action");
-        }
-    }
 
     /**
      * GET /auth/users/me
@@ -105,7 +106,8 @@ public class UserController {
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUserProfile(@AuthenticationPrincipal User currentUser) {
         try {
-            UserProfileDTO profile = userService.convertToProfileDTO(currentUser);
+            // The principal only carries id, username and role (see JwtAuthenticationFilter)
+            UserProfileDTO profile = userService.getUserProfile(currentUser.getId());
             return ResponseEntity.ok(profile);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -141,9 +143,6 @@ public class UserController {
             @RequestBody UpdateProfileDTO updateDTO,
             @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             // Check if user is updating their own profile or is admin
             if (!currentUser.getId().equals(id) && !userService.isAdmin(currentUser.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -171,9 +170,6 @@ public class UserController {
             @RequestBody ChangePasswordDTO changePasswordDTO,
             @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             // Users can only change their own password (not even admin can change others' passwords)
             if (!currentUser.getId().equals(id)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -206,8 +202,9 @@ public class UserController {
                         .body(Map.of("error", "You can only delete your own account"));
             }
 
-            userService.deleteUser(id);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            AccountDeletionJob job = userService.deleteUser(id);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("message", "Account deletion started", "jobId", job.getId()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -217,6 +214,24 @@ public class UserController {
         }
     }
 
+    /**
+     * GET /auth/users/{id}/deletion
+     * Progress of the account deletion (owner only or admin)
+     */
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<?> getDeletionProgress(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User currentUser) {
+        if (!currentUser.getId().equals(id) && !userService.isAdmin(currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "You can only view your own account deletion"));
+        }
+        return userService.getDeletionJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No deletion requested for user " + id)));
+    }
+
     /**
      * GET /auth/users
      * Get all users (excluding current user)
@@ -224,38 +239,70 @@ public class UserController {
     @GetMapping
     public ResponseEntity<?> getAllUsers(@AuthenticationPrincipal User currentUser) {
         try {
-            String currentUsername = currentUser.getUsername();
-            List<User> users = userRepository.findAll();
-
-            List<Map<String, Object>> userList = users.stream()
-                    .filter(user -> !user.getUsername().equals(currentUsername))
-                    .map(user -> {
-                        Map<String, Object> userMap = new HashMap<>();
-                        userMap.put("id", user.getId());
-                        userMap.put("username", user.getUsername());
-                        userMap.put("email", user.getEmail());
-                        userMap.put("role", user.getRole());
-                        userMap.put("createdAt", user.getCreatedAt());
-
-                        // Add follow stats
-                        Map<String, Object> stats = subscriptionService.getFollowStats(user.getUsername());
-                        userMap.put("followersCount", stats.get("followersCount"));
-                        userMap.put("followingCount", stats.get("followingCount"));
-
-                        // Check if current user is following this user
-                        userMap.put("isFollowing", subscriptionService.isFollowing(currentUsername, user.getId()));
-
-                        return userMap;
-                    })
+            List<User> users = userRepository.findAll().stream()
+                    .filter(user -> !user.getId().equals(currentUser.getId()))
                     .collect(Collectors.toList());
 
-            return ResponseEntity.ok(userList);
+            return ResponseEntity.ok(subscriptionService.toDirectoryEntries(users, currentUser.getId()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
+    /**
+     * GET /auth/users/directory?cursor=&size=20
+     * Same entries as GET /auth/users, one keyset page at a time (newest users first)
+     * Send back "nextCursor" as cursor to read the next page
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<?> getDirectory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<User> page = userService.getDirectoryPage(currentUser.getId(), cursor, pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", subscriptionService.toDirectoryEntries(page.getItems(), currentUser.getId()));
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasMore", page.isHasMore());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /auth/users/recommendations?limit=10
+     * Accounts followed by the accounts you follow, ranked by mutual follows and recent activity
+     * Each entry is a directory entry plus "mutualCount"
+     */
+    @GetMapping("/recommendations")
+    public ResponseEntity<?> getRecommendations(
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        List<RecommendationService.Recommendation> recommendations =
+                recommendationService.getRecommendations(currentUser.getId(), limit);
+
+        Map<Long, User> usersById = userRepository.findAllById(recommendations.stream()
+                        .map(RecommendationService.Recommendation::getUserId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+
+        List<User> users = new ArrayList<>();
+        Map<Long, Integer> mutualCounts = new HashMap<>();
+        for (RecommendationService.Recommendation recommendation : recommendations) {
+            User user = usersById.get(recommendation.getUserId());
+            if (user != null && !Boolean.TRUE.equals(user.getIsBanned())) {
+                users.add(user);
+                mutualCounts.put(user.getId(), recommendation.getMutualCount());
+            }
+        }
+
+        List<Map<String, Object>> entries = subscriptionService.toDirectoryEntries(users, currentUser.getId());
+        entries.forEach(entry -> entry.put("mutualCount", mutualCounts.get(entry.get("id"))));
+        return ResponseEntity.ok(entries);
+    }
+
     /**
      * POST /auth/users/{userId}/follow
      * Follow a user
@@ -263,9 +310,6 @@ public class UserController {
     @PostMapping("/{userId}/follow")
     public ResponseEntity<?> followUser(@PathVariable Long userId, @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             subscriptionService.followUser(currentUser.getUsername(), userId);
             return ResponseEntity.ok(Map.of("message", "Successfully followed user"));
         } catch (RuntimeException e) {
@@ -280,9 +324,6 @@ public class UserController {
     @DeleteMapping("/{userId}/follow")
     public ResponseEntity<?> unfollowUser(@PathVariable Long userId, @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             subscriptionService.unfollowUser(currentUser.getUsername(), userId);
             return ResponseEntity.ok(Map.of("message", "Successfully unfollowed user"));
         } catch (RuntimeException e) {
@@ -296,7 +337,7 @@ public class UserController {
      */
     @GetMapping("/{userId}/is-following")
     public ResponseEntity<Boolean> isFollowing(@PathVariable Long userId, @AuthenticationPrincipal User currentUser) {
-        boolean isFollowing = subscriptionService.isFollowing(currentUser.getUsername(), userId);
+        boolean isFollowing = subscriptionService.isFollowing(currentUser.getId(), userId);
         return ResponseEntity.ok(isFollowing);
     }
 
@@ -329,9 +370,6 @@ public class UserController {
             @RequestParam("file") MultipartFile file,
             @AuthenticationPrincipal User currentUser) {
         try {
-            // Check if user is banned
-            checkUserBanned(currentUser);
-
             // Validate file
             if (file.isEmpty()) {
                 throw new RuntimeException("Please select a file to upload");
@@ -348,8 +386,10 @@ public class UserController {
             String fileUrl = "/uploads/" + filename;
 
             // Update user's profilePictureUrl
-            currentUser.setProfilePictureUrl(fileUrl);
-            userRepository.save(currentUser);
+            User user = userRepository.findById(currentUser.getId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            user.setProfilePictureUrl(fileUrl);
+            userRepository.save(user);
 
             Map<String, String> response = new HashMap<>();
             response.put("filename", filename);
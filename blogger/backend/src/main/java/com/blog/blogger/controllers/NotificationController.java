@@ -1,19 +1,26 @@
 package com.blog.blogger.controllers;
 
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.NotificationFeedItemDTO;
 import com.blog.blogger.models.Notification;
 import com.blog.blogger.models.User;
+import com.blog.blogger.services.NotificationPreferenceService;
 import com.blog.blogger.services.NotificationService;
+import com.blog.blogger.services.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Collections;
 
 @RestController
@@ -22,10 +29,13 @@ import java.util.Collections;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationPreferenceService notificationPreferenceService;
 
     /**
      * Get all notifications for the current user
      * GET /auth/notifications
+     * Returns the whole history; large histories should use GET /auth/notifications/feed
      */
     @GetMapping
     public ResponseEntity<?> getUserNotifications(
@@ -42,6 +52,26 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Notification feed, keyset paginated (newest first)
+     * GET /auth/notifications/feed?cursor=&size=20
+     * Flat rows without the user; send back "nextCursor" as cursor to read the next page
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<Map<String, Object>> getNotificationFeed(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        CursorPage<NotificationFeedItemDTO> page = notificationService.getFeedPage(currentUser.getId(), cursor, pageSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("notifications", page.getItems());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasMore", page.isHasMore());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get paginated notifications for the current user
      * GET /auth/notifications/paginated?page=0&size=10
@@ -56,6 +86,18 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Live notifications (Server-Sent Events)
+     * GET /auth/notifications/stream
+     * Sends the notifications missed since the Last-Event-ID header on reconnect
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @AuthenticationPrincipal User currentUser,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationStreamService.subscribe(currentUser.getId(), lastEventId);
+    }
+
     /**
      * Get unread notifications for the current user
      * GET /auth/notifications/unread
@@ -133,6 +175,37 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Notification types the current user has muted
+     * GET /auth/notifications/preferences
+     */
+    @GetMapping("/preferences")
+    public ResponseEntity<Map<String, Object>> getPreferences(
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(preferencesResponse(notificationPreferenceService.getMutedTypes(currentUser.getId())));
+    }
+
+    /**
+     * Replace the muted notification types of the current user
+     * PUT /auth/notifications/preferences {"mutedTypes": ["NEW_POST", "POST_LIKE"]}
+     * Muted notifications are not created at all (not just hidden)
+     */
+    @PutMapping("/preferences")
+    public ResponseEntity<Map<String, Object>> updatePreferences(
+            @AuthenticationPrincipal User currentUser,
+            @RequestBody Map<String, List<String>> body) {
+        List<String> mutedTypes = body.get("mutedTypes");
+        return ResponseEntity.ok(preferencesResponse(notificationPreferenceService.setMutedTypes(
+                currentUser.getId(), mutedTypes == null ? Collections.emptyList() : mutedTypes)));
+    }
+
+    private static Map<String, Object> preferencesResponse(Set<Notification.NotificationType> mutedTypes) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("mutedTypes", mutedTypes);
+        response.put("types", Notification.NotificationType.values());
+        return response;
+    }
+
     /**
      * Delete all read notifications (cleanup)
      * DELETE /auth/notifications/read
@@ -0,0 +1,35 @@
+package com.blog.blogger.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.blog.blogger.utils.KeysetCursor;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CursorPage - One page of a keyset-paginated list
+ *
+ * nextCursor is null when there is nothing after this page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Build a page from rows fetched with a limit of size + 1
+     * The extra row only tells us whether another page exists, it is not returned
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,27 @@
+package com.blog.blogger.dto;
+
+import java.time.LocalDateTime;
+
+import com.blog.blogger.models.Notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * NotificationFeedItemDTO - Flat notification row of GET /auth/notifications/feed (no user entity)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeedItemDTO {
+    private Long id;
+    private Notification.NotificationType type;
+    private String message;
+    private Long relatedPostId;
+    private Long relatedUserId;
+    private Boolean isRead;
+    private Integer actorCount;
+    private String sampleActorIds;
+    private LocalDateTime createdAt;
+}
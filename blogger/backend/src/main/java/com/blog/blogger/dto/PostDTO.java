@@ -15,9 +15,12 @@ import java.util.List;
 public class PostDTO {
     private Long id;
     private String title;
-    private String content;
+    private String excerpt;            // Short plain preview of the content for feed cards
+    private String mediaType;
+    private String mediaUrl;
     private AuthorDTO author;          // Nested DTO for author info
     private int likeCount;
+    private Boolean isHidden;
     private List<String> tags;
     private Integer commentCount;
     private LocalDateTime createdAt;
@@ -33,5 +36,6 @@ public class PostDTO {
         private String username;
         private String fullName;
         private String avatar;
+        private String profilePictureUrl;
     }
 }
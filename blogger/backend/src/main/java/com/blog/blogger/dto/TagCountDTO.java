@@ -0,0 +1,16 @@
+package com.blog.blogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TagCountDTO - A tag and the number of recent posts using it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagCountDTO {
+    private String tag;
+    private long count;
+}
@@ -0,0 +1,18 @@
+package com.blog.blogger.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TimeSeriesPointDTO - One bucket (hour or day) of an admin analytics series
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPointDTO {
+    private LocalDateTime time;
+    private long value;
+}
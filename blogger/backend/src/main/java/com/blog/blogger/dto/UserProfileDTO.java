@@ -27,4 +27,6 @@ public class UserProfileDTO {
     private LocalDateTime updatedAt;
     private Integer postCount;      // Optional: number of posts by user
     private Integer commentCount;   // Optional: number of comments by user
+    private Integer followersCount;
+    private Integer followingCount;
 }
@@ -0,0 +1,72 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * AccountDeletionJob - Progress of a background account deletion
+ *
+ * The job walks through the stages in order and records the current one, so a
+ * deletion interrupted by a restart resumes where it stopped.
+ */
+@Entity
+@Table(name = "account_deletion_jobs", indexes = {
+    @Index(name = "idx_account_deletion_jobs_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    @Builder.Default
+    private Stage stage = Stage.POSTS;
+
+    @Column(name = "rows_deleted", nullable = false)
+    @Builder.Default
+    private long rowsDeleted = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Stage {
+        POSTS,              // Tombstone the user's posts
+        PURGE_POSTS,        // Remove the tombstoned posts and their comments, likes, media
+        COMMENTS,           // The user's comments on other posts (with their likes and responses)
+        RESPONSES,          // The user's responses to comments
+        POST_LIKES,         // Likes given by the user
+        COMMENT_LIKES,      // Comment likes given by the user
+        SUBSCRIPTIONS,      // Follows in both directions
+        NOTIFICATIONS,      // Notifications received by or about the user
+        REPORTS,            // Reports filed by the user
+        USER,               // The users row itself
+        DONE
+    }
+}
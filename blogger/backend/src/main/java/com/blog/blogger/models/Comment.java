@@ -19,7 +19,9 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,7 +42,8 @@ public class Comment {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
-    @Column(name = "like_count")
+    // Only written by LikeCounterService (like_count = like_count + ?), never by entity saves
+    @Column(name = "like_count", updatable = false)
     @Builder.Default
     private int likeCount = 0;
 
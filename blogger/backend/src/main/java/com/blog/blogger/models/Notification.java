@@ -1,5 +1,6 @@
 package com.blog.blogger.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -9,7 +10,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_related_post", columnList = "related_post_id"),
+    @Index(name = "idx_notifications_related_user", columnList = "related_user_id"),
+    @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read"),
+    @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_notifications_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,9 +26,10 @@ public class Notification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "user_id", nullable = false)
-    @JsonIgnoreProperties({"password", "email", "createdAt", "updatedAt", "isBanned", "bannedAt", "bio", "fullName", "avatar", "profilePictureUrl"})
+    @ManyToOne(fetch = FetchType.LAZY)
+    // No foreign key: MySQL cannot partition a table that has one (see NotificationRetentionService)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password", "email", "createdAt", "updatedAt", "isBanned", "bannedAt", "bio", "fullName", "avatar", "profilePictureUrl"})
     private User user; // The user who receives this notification
 
     @Column(nullable = false)
@@ -40,17 +48,40 @@ public class Notification {
     @Column(nullable = false)
     private Boolean isRead = false;
 
+    // Read through the user's read watermark (id <= last_read_id); set by NotificationService, not stored
+    @Transient
+    @JsonIgnore
+    private boolean belowReadWatermark;
+
+    // Coalesced notifications: number of distinct actors merged into this row and the latest few of them
+    @Column(name = "actor_count")
+    private Integer actorCount = 1;
+
+    @Column(name = "sample_actor_ids", length = 100)
+    private String sampleActorIds; // Comma-separated user ids, newest first
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    public Boolean getIsRead() {
+        return Boolean.TRUE.equals(isRead) || belowReadWatermark;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         if (isRead == null) {
             isRead = false;
         }
+        if (actorCount == null) {
+            actorCount = 1;
+        }
     }
 
+    // Append new types at the end: the ordinal is the bit used in User.mutedNotificationTypes
     public enum NotificationType {
         NEW_POST,           // Someone you follow published a new post
         NEW_FOLLOWER,       // Someone followed you
@@ -0,0 +1,51 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * NotificationFanoutJob - A new post whose NEW_POST notifications are still being written
+ *
+ * Created in the same transaction as the post. NotificationFanoutService walks the
+ * author's followers in follower_id order; lastFollowerId is saved with every chunk,
+ * so a fan-out interrupted by a restart resumes without duplicates.
+ */
+@Entity
+@Table(name = "notification_fanout_jobs", indexes = {
+    @Index(name = "idx_notification_fanout_jobs_finished", columnList = "finished_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationFanoutJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "last_follower_id", nullable = false)
+    @Builder.Default
+    private long lastFollowerId = 0;
+
+    @Column(name = "notifications_written", nullable = false)
+    @Builder.Default
+    private long notificationsWritten = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,41 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * NotificationState - Persisted copy of a user's unread notification counter
+ *
+ * Written in the background by UnreadCountService and read back on startup,
+ * so the counters are available without counting the notifications table.
+ * Also holds the user's read watermark.
+ */
+@Entity
+@Table(name = "notification_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private long unreadCount = 0;
+
+    // Notifications of the user with an id up to this one are read (see ReadWatermarkService)
+    @Column(name = "last_read_id", nullable = false)
+    @Builder.Default
+    private long lastReadId = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.blog.blogger.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -10,6 +11,7 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -17,7 +19,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_posts_deleted_at", columnList = "deleted_at")
+})
+// Deleted posts are tombstones until PostPurgeService removes them: invisible to every JPA read
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,7 +56,8 @@ public class Post {
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler", "password" })
     private User author;
 
-    @Column(name = "like_count")
+    // Only written by LikeCounterService (like_count = like_count + ?), never by entity saves
+    @Column(name = "like_count", updatable = false)
     @Builder.Default
     private int likeCount = 0;
 
@@ -76,6 +84,10 @@ public class Post {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     // Helper methods
     public void addComment(Comment comment) {
         comments.add(comment);
@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "post_likes", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "post_id"})
+}, indexes = {
+    @Index(name = "idx_post_likes_liked_at", columnList = "liked_at")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,43 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * PostTagEntry - Denormalized (tag, created_at, post_id) row of a visible post
+ *
+ * post_tags only knows (post_id, tag), so listing a tag newest first would need a
+ * join and a sort on posts. This table carries the post's created_at so a tag page
+ * is a single range scan of the (tag, created_at, post_id) index.
+ * Maintained by TagService; hidden posts have no rows.
+ */
+@Entity
+@Table(name = "post_tag_index", indexes = {
+    @Index(name = "idx_post_tag_index_tag_created", columnList = "tag, created_at, post_id"),
+    @Index(name = "idx_post_tag_index_post", columnList = "post_id"),
+    @Index(name = "idx_post_tag_index_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostTagEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String tag;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
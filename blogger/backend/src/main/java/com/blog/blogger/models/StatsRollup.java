@@ -0,0 +1,58 @@
+package com.blog.blogger.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * StatsRollup - Pre-aggregated count of one metric for one hour or one day
+ *
+ * Rows are written by StatsRollupService; the unique key lets a bucket be
+ * recomputed any number of times without duplicates.
+ */
+@Entity
+@Table(name = "stats_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stats_rollups_bucket", columnNames = {"metric", "granularity", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Metric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long total;
+
+    public enum Metric {
+        REGISTRATIONS,      // users.created_at
+        POSTS,              // posts.created_at
+        COMMENTS,           // comments.created_at
+        LIKES,              // post_likes.liked_at
+        REPORTS,            // reports.created_at
+        BANS                // users.banned_at (accounts still banned)
+    }
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+}
@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "subscriptions", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"follower_id", "following_id"})
+}, indexes = {
+    @Index(name = "idx_subscriptions_following", columnList = "following_id, follower_id")
 })
 @Data
 @NoArgsConstructor
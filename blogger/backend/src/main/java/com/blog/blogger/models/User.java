@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -12,6 +14,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,7 +23,10 @@ import lombok.NoArgsConstructor;
 
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_users_banned_at", columnList = "banned_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -62,6 +68,29 @@ public class User {
 
     private LocalDateTime bannedAt;
 
+    // Only written by SubscriptionService (followers_count = followers_count + ?) and
+    // FollowCountService.reconcile(), never by entity saves
+    @Column(name = "followers_count", updatable = false)
+    @Builder.Default
+    private int followersCount = 0;
+
+    @Column(name = "following_count", updatable = false)
+    @Builder.Default
+    private int followingCount = 0;
+
+    // Muted notification types, bit (1 << NotificationType.ordinal()) per type
+    // Only written by NotificationPreferenceService, never by entity saves
+    @Column(name = "muted_notification_types", updatable = false)
+    @Builder.Default
+    private int mutedNotificationTypes = 0;
+
+    // Bumped on ban, unban, role change and account deletion; tokens carrying an older value are rejected
+    // Only written by SecurityEpochService, never by entity saves
+    @Column(name = "security_epoch", updatable = false)
+    @JsonIgnore
+    @Builder.Default
+    private int securityEpoch = 0;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
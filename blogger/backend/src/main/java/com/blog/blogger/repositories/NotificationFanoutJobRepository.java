@@ -0,0 +1,19 @@
+package com.blog.blogger.repositories;
+
+import com.blog.blogger.models.NotificationFanoutJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationFanoutJobRepository extends JpaRepository<NotificationFanoutJob, Long> {
+
+    List<NotificationFanoutJob> findByFinishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    long countByFinishedAtIsNull();
+
+    Optional<NotificationFanoutJob> findFirstByFinishedAtIsNullOrderByIdAsc();
+}
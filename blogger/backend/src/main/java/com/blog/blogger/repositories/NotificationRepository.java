@@ -1,16 +1,21 @@
 package com.blog.blogger.repositories;
 
+import com.blog.blogger.dto.NotificationFeedItemDTO;
 import com.blog.blogger.models.Notification;
 import com.blog.blogger.models.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -19,19 +24,32 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Page<Notification> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
 
-    List<Notification> findByUserAndIsReadFalseOrderByCreatedAtDesc(User user);
+    List<Notification> findByUserAndIsReadFalseAndIdGreaterThanOrderByCreatedAtDesc(User user, Long lastReadId);
 
-    Long countByUserAndIsReadFalse(User user);
+    // Keyset notification feed: flat rows read by user_id from the (user_id, created_at, id) index, no user join
+    @Query("SELECT new com.blog.blogger.dto.NotificationFeedItemDTO(n.id, n.type, n.message, n.relatedPostId, "
+            + "n.relatedUserId, n.isRead, n.actorCount, n.sampleActorIds, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationFeedItemDTO> findFeedFirstPage(@Param("userId") Long userId, Pageable pageable);
 
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user = :user AND n.isRead = false")
-    void markAllAsReadForUser(@Param("user") User user);
+    @Query("SELECT new com.blog.blogger.dto.NotificationFeedItemDTO(n.id, n.type, n.message, n.relatedPostId, "
+            + "n.relatedUserId, n.isRead, n.actorCount, n.sampleActorIds, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationFeedItemDTO> findFeedAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    // Unread notification of the same kind about the same post, still inside the coalescing window
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Notification> findFirstByUserAndTypeAndRelatedPostIdAndIsReadFalseAndIdGreaterThanAndCreatedAtAfterOrderByIdDesc(
+            User user, Notification.NotificationType type, Long relatedPostId, Long lastReadId, LocalDateTime after);
 
     void deleteByUser(User user);
 
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.user = :user AND n.isRead = true")
-    void deleteReadNotificationsForUser(@Param("user") User user);
+    @Query("DELETE FROM Notification n WHERE n.user = :user AND (n.isRead = true OR n.id <= :lastReadId)")
+    void deleteReadNotificationsForUser(@Param("user") User user, @Param("lastReadId") Long lastReadId);
 }
 
 
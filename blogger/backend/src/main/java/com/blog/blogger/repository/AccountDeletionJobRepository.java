@@ -0,0 +1,17 @@
+package com.blog.blogger.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blog.blogger.models.AccountDeletionJob;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, Long> {
+
+    List<AccountDeletionJob> findByStageNotOrderByIdAsc(AccountDeletionJob.Stage stage);
+
+    Optional<AccountDeletionJob> findFirstByUserIdOrderByIdDesc(Long userId);
+}
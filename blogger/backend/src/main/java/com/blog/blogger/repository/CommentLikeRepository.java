@@ -1,8 +1,11 @@
 package com.blog.blogger.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.blog.blogger.models.Comment;
@@ -21,4 +24,7 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
 
       void deleteByComment(Comment comment);
     long countByComment(Comment comment);
+
+    @Query("SELECT cl.comment.id FROM CommentLike cl WHERE cl.user.id = :userId")
+    List<Long> findCommentIdsByUserId(@Param("userId") Long userId);
 }
@@ -3,7 +3,10 @@ import com.blog.blogger.models.Post;
 import com.blog.blogger.models.PostLike;
 import com.blog.blogger.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,4 +29,7 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     void deleteByUserAndPost(User user, Post post);
 
     void deleteByPost(Post post);
+
+    @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.user.id = :userId")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId);
 }
@@ -1,9 +1,12 @@
 package com.blog.blogger.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,10 +24,56 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> findByAuthorIdInOrderByCreatedAtDesc(List<Long> authorIds);
 
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime start, LocalDateTime end);
+
   
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByIsHiddenFalseOrIsHiddenIsNull(Pageable pageable);
 
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Post> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    List<Post> findByIdIn(Collection<Long> ids);
+
    
     @Query("SELECT p FROM Post p WHERE p.author.id IN :authorIds AND (p.isHidden = false OR p.isHidden IS NULL) ORDER BY p.createdAt DESC")
     List<Post> findNonHiddenPostsByAuthorIds(@Param("authorIds") List<Long> authorIds);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT p FROM Post p WHERE (p.isHidden = false OR p.isHidden IS NULL) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findVisibleFirstPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT p FROM Post p WHERE (p.isHidden = false OR p.isHidden IS NULL) "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findVisibleAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findAllFirstPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT p FROM Post p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findAllAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<Object[]> findTagsByPostIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Post p WHERE p.id > :afterId AND (p.isHidden = false OR p.isHidden IS NULL) ORDER BY p.id ASC")
+    List<Post> findVisibleAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.createdAt, p.likeCount FROM Post p WHERE p.createdAt >= :since AND (p.isHidden = false OR p.isHidden IS NULL)")
+    List<Object[]> findHotCandidates(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id, p.author.id FROM Post p WHERE p.author.id IN :authorIds AND (p.isHidden = false OR p.isHidden IS NULL) ORDER BY p.id DESC")
+    List<Object[]> findTimelineEntriesByAuthorIds(@Param("authorIds") List<Long> authorIds, Pageable pageable);
+
+    // [authorId, latest createdAt] of the given authors that posted since the date
+    @Query("SELECT p.author.id, MAX(p.createdAt) FROM Post p WHERE p.author.id IN :authorIds AND p.createdAt >= :since "
+            + "AND (p.isHidden = false OR p.isHidden IS NULL) GROUP BY p.author.id")
+    List<Object[]> findLatestPostTimes(@Param("authorIds") Collection<Long> authorIds, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,40 @@
+package com.blog.blogger.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.blog.blogger.models.PostTagEntry;
+
+/**
+ * PostTagEntryRepository - Data access layer for the post_tag_index table
+ *
+ * Tag pages are read newest first with keyset pagination on (created_at, post_id).
+ */
+@Repository
+public interface PostTagEntryRepository extends JpaRepository<PostTagEntry, Long> {
+
+    @Query("SELECT e FROM PostTagEntry e WHERE e.tag = :tag ORDER BY e.createdAt DESC, e.postId DESC")
+    List<PostTagEntry> findFirstPage(@Param("tag") String tag, Pageable pageable);
+
+    @Query("SELECT e FROM PostTagEntry e WHERE e.tag = :tag "
+            + "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.postId < :postId)) "
+            + "ORDER BY e.createdAt DESC, e.postId DESC")
+    List<PostTagEntry> findAfter(@Param("tag") String tag, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("postId") Long postId, Pageable pageable);
+
+    List<PostTagEntry> findByPostId(Long postId);
+
+    @Query("SELECT e.tag, e.createdAt FROM PostTagEntry e WHERE e.createdAt >= :since")
+    List<Object[]> findTagsCreatedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM PostTagEntry e WHERE e.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+}
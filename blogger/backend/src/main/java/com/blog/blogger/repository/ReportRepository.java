@@ -4,6 +4,9 @@ import com.blog.blogger.models.Report;
 import com.blog.blogger.models.User;
 import com.blog.blogger.models.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -26,6 +29,10 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     void deleteByPost(Post post);
 
     void deleteByReporter(User reporter);
+
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.post.id = :postId")
+    void deleteAllByPostId(@Param("postId") Long postId);
     
     
     long countByResolvedFalse();
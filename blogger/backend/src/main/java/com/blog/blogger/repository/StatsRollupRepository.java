@@ -0,0 +1,16 @@
+package com.blog.blogger.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.blog.blogger.models.StatsRollup;
+
+@Repository
+public interface StatsRollupRepository extends JpaRepository<StatsRollup, Long> {
+
+    List<StatsRollup> findByMetricAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            StatsRollup.Metric metric, StatsRollup.Granularity granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -3,6 +3,9 @@ package com.blog.blogger.repository;
 import com.blog.blogger.models.Subscription;
 import com.blog.blogger.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,5 +26,13 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     long countByFollowing(User following);
 
-    void deleteByFollowerAndFollowing(User follower, User following);
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.follower = :follower AND s.following = :following")
+    int deleteByFollowerAndFollowing(@Param("follower") User follower, @Param("following") User following);
+
+    @Query("SELECT s.follower.id FROM Subscription s WHERE s.following.id = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId);
+
+    @Query("SELECT s.following.id FROM Subscription s WHERE s.follower.id = :userId")
+    List<Long> findFollowingIdsByFollowerId(@Param("userId") Long userId);
 }
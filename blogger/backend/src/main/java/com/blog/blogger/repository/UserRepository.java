@@ -1,14 +1,53 @@
 package com.blog.blogger.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.blog.blogger.models.Role;
 import com.blog.blogger.models.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
      Optional<User> findByEmail(String email);
      Optional<User> findByUsername(String username);
+
+     long countByIsBannedTrue();
+
+     long countByRole(Role role);
+
+     long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime start, LocalDateTime end);
+
+     @Modifying
+     @Query("UPDATE User u SET u.mutedNotificationTypes = :mask WHERE u.id = :id")
+     int setMutedNotificationTypes(@Param("id") Long id, @Param("mask") int mask);
+
+     @Modifying
+     @Query("UPDATE User u SET u.securityEpoch = u.securityEpoch + 1 WHERE u.id = :id")
+     int bumpSecurityEpoch(@Param("id") Long id);
+
+     @Modifying
+     @Query("UPDATE User u SET u.followersCount = u.followersCount + :delta WHERE u.id = :id")
+     int addFollowersCount(@Param("id") Long id, @Param("delta") int delta);
+
+     @Modifying
+     @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta WHERE u.id = :id")
+     int addFollowingCount(@Param("id") Long id, @Param("delta") int delta);
+
+     // User directory, newest first, keyset on (createdAt, id)
+     @Query("SELECT u FROM User u WHERE u.id <> :excludeId ORDER BY u.createdAt DESC, u.id DESC")
+     List<User> findDirectoryFirstPage(@Param("excludeId") Long excludeId, Pageable pageable);
+
+     @Query("SELECT u FROM User u WHERE u.id <> :excludeId "
+             + "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) "
+             + "ORDER BY u.createdAt DESC, u.id DESC")
+     List<User> findDirectoryAfter(@Param("excludeId") Long excludeId, @Param("createdAt") LocalDateTime createdAt,
+             @Param("id") Long id, Pageable pageable);
 }
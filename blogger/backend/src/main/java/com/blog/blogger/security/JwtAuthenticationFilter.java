@@ -1,14 +1,20 @@
 package com.blog.blogger.security;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.blog.blogger.models.Role;
+
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +26,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final SecurityEpochService securityEpochService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   SecurityEpochService securityEpochService) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.securityEpochService = securityEpochService;
     }
 
     @Override
@@ -47,42 +57,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7);
 
-            String username = jwtUtil.extractUsername(token);
+            Claims claims = jwtUtil.parseToken(token);
+            String username = claims.getSubject();
             logger.info("Token username: " + username);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                logger.info("User details loaded for: " + username);
-
-                if (userDetails == null) {
-                    logger.error("UserDetails is null for username: " + username);
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                if (jwtUtil.validateToken(token, userDetails.getUsername())) {
-                    logger.info("Token validated successfully for: " + username);
-
-                    com.blog.blogger.models.User user = userDetailsService.getUserByUsername(username);
-                    logger.info("User entity loaded: " + user.getId());
+                // Tokens issued before the id/role/epoch claims existed still go through the user lookup
+                com.blog.blogger.models.User user = claims.get(JwtUtil.CLAIM_USER_ID) != null
+                        ? principalFromClaims(claims, username)
+                        : userDetailsService.getUserByUsername(username);
 
+                if (user == null) {
+                    logger.warn("Token revoked for: " + username);
+                } else {
                     UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                             user,  
                             null,  
-                            userDetails.getAuthorities()  
+                            List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))  
                         );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     logger.info("Authentication set in SecurityContext for: " + username);
-                } else {
-                    logger.error("Token validation failed for: " + username);
                 }
             }
-        } catch (org.springframework.security.core.userdetails.UsernameNotFoundException e) {
+        } catch (UsernameNotFoundException e) {
             logger.error("JWT Authentication failed - User banned or not found: " + e.getMessage());
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json");
@@ -96,4 +98,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
        
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The principal carried by the token: a User holding only id, username and role
+     * Returns null when a ban, role change or deletion happened after the token was issued
+     * Banned and deleted users are rejected here (and by the lookup for older tokens),
+     * so controllers need no ban check of their own
+     */
+    private com.blog.blogger.models.User principalFromClaims(Claims claims, String username) {
+        Long userId = ((Number) claims.get(JwtUtil.CLAIM_USER_ID)).longValue();
+        if (securityEpochService.isBlocked(userId)) {
+            throw new UsernameNotFoundException("User account is banned: " + username);
+        }
+        int epoch = ((Number) claims.get(JwtUtil.CLAIM_EPOCH)).intValue();
+        if (!securityEpochService.isCurrent(userId, epoch)) {
+            return null;
+        }
+        return com.blog.blogger.models.User.builder()
+                .id(userId)
+                .username(username)
+                .role(Role.valueOf(claims.get(JwtUtil.CLAIM_ROLE, String.class)))
+                .build();
+    }
 }
@@ -7,6 +7,8 @@ import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.blog.blogger.models.User;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -38,27 +40,47 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(secretString.getBytes());
     }
 
+    // Claims read back by JwtAuthenticationFilter to build the principal without a user lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EPOCH = "epoch";
+
     /**
      * Generate a JWT token for a user
      *
-     * @param username - The user's username
+     * @param user - The user logging in
      * @return JWT token as a String
      *
      * Token contains:
      * - Subject (username)
+     * - User id, role and security epoch (see SecurityEpochService)
      * - Issued at time (when created)
      * - Expiration time (when it expires)
      * - Signature (to verify it's authentic)
      */
-    public String generateToken(String username) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .subject(username)                              // Who the token is for
+                .subject(user.getUsername())                    // Who the token is for
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_EPOCH, user.getSecurityEpoch())
                 .issuedAt(new Date())                           // When it was created
                 .expiration(new Date(System.currentTimeMillis() + expirationTime)) // When it expires
                 .signWith(getSigningKey())                      // Sign it with our secret
                 .compact();                                     // Build the token
     }
 
+    /**
+     * Verify the signature and expiration of a token and return its claims
+     *
+     * @param token - The JWT token
+     * @return Claims of the token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
     /**
      * Extract username from JWT token
      *
@@ -0,0 +1,108 @@
+package com.blog.blogger.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+/**
+ * SecurityEpochService - Decides whether a token issued for a user still holds
+ *
+ * Every token carries the user's users.security_epoch at login. Banning,
+ * unbanning, changing the role or deleting an account bumps the epoch, so
+ * tokens issued before the change stop working. The current epoch of every
+ * user with a non-zero one, and the ids of banned or deleted accounts, are
+ * kept in memory (loaded on startup) so checking a token needs no query.
+ * Until the load is done, checks read the database.
+ */
+@Service
+public class SecurityEpochService {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityEpochService.class);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Integer> epochs = new ConcurrentHashMap<>();
+    private final Set<Long> blocked = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public SecurityEpochService(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Whether a token carrying this epoch was issued after the user's last security change
+     */
+    public boolean isCurrent(Long userId, int epoch) {
+        if (!ready) {
+            List<Integer> current = jdbcTemplate.queryForList(
+                    "SELECT security_epoch FROM users WHERE id = ?", Integer.class, userId);
+            return !current.isEmpty() && current.get(0) == epoch;
+        }
+        return epochs.getOrDefault(userId, 0) == epoch;
+    }
+
+    /**
+     * Banned, or deleted (or being deleted)
+     */
+    public boolean isBlocked(Long userId) {
+        if (!ready) {
+            List<Boolean> banned = jdbcTemplate.queryForList(
+                    "SELECT is_banned FROM users WHERE id = ?", Boolean.class, userId);
+            return banned.isEmpty() || Boolean.TRUE.equals(banned.get(0));
+        }
+        return blocked.contains(userId);
+    }
+
+    /**
+     * Invalidate every token issued to the user so far
+     * Call after the ban, role or deletion change is saved
+     */
+    @Transactional
+    public void revokeTokens(Long userId) {
+        if (userRepository.bumpSecurityEpoch(userId) == 0) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT security_epoch, is_banned FROM users WHERE id = ?", userId);
+        int epoch = ((Number) row.get("security_epoch")).intValue();
+        boolean banned = Boolean.TRUE.equals(row.get("is_banned"));
+        AfterCommit.run(() -> {
+            epochs.put(userId, epoch);
+            if (banned) {
+                blocked.add(userId);
+            } else {
+                blocked.remove(userId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query("SELECT id, security_epoch, is_banned FROM users WHERE security_epoch <> 0 OR is_banned = true", rs -> {
+            if (rs.getInt(2) != 0) {
+                epochs.put(rs.getLong(1), rs.getInt(2));
+            }
+            if (rs.getBoolean(3)) {
+                blocked.add(rs.getLong(1));
+            }
+        });
+        // Deleted accounts have no users row left; their deletion job remembers them
+        blocked.addAll(jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM account_deletion_jobs", Long.class));
+        ready = true;
+        log.info("Security epochs loaded: {} users with revoked tokens, {} blocked", epochs.size(), blocked.size());
+    }
+}
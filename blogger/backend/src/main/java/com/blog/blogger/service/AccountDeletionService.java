@@ -0,0 +1,307 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.models.AccountDeletionJob;
+import com.blog.blogger.models.AccountDeletionJob.Stage;
+import com.blog.blogger.models.Role;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repository.AccountDeletionJobRepository;
+import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.security.SecurityEpochService;
+import com.blog.blogger.services.NotificationPreferenceService;
+import com.blog.blogger.services.UnreadCountService;
+import com.blog.blogger.utils.BatchDelete;
+
+/**
+ * AccountDeletionService - Staged, resumable account deletion
+ *
+ * Requesting a deletion bans the account at once and records an AccountDeletionJob.
+ * A scheduled worker then runs the job's stages in order (see AccountDeletionJob.Stage).
+ * Every stage deletes by an indexed user column (author_id, user_id, follower_id...)
+ * in bounded chunks, one short transaction per chunk, so memory use does not
+ * depend on the size of the account and no table is locked as a whole.
+ * The job records its stage and row count after each stage, so it reports
+ * progress and resumes after a restart.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private final AccountDeletionJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostPurgeService postPurgeService;
+    private final LikeCounterService likeCounterService;
+    private final LikeIndexService likeIndexService;
+    private final TimelineService timelineService;
+    private final PostSearchService postSearchService;
+    private final TagService tagService;
+    private final HotRankingService hotRankingService;
+    private final StatsCounterService statsCounterService;
+    private final SocialGraphService socialGraphService;
+    private final UnreadCountService unreadCountService;
+    private final NotificationPreferenceService notificationPreferenceService;
+    private final SecurityEpochService securityEpochService;
+    private final int batchSize;
+
+    public AccountDeletionService(AccountDeletionJobRepository jobRepository,
+                                  UserRepository userRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  PostPurgeService postPurgeService,
+                                  LikeCounterService likeCounterService,
+                                  LikeIndexService likeIndexService,
+                                  TimelineService timelineService,
+                                  PostSearchService postSearchService,
+                                  TagService tagService,
+                                  HotRankingService hotRankingService,
+                                  StatsCounterService statsCounterService,
+                                  SocialGraphService socialGraphService,
+                                  UnreadCountService unreadCountService,
+                                  NotificationPreferenceService notificationPreferenceService,
+                                  SecurityEpochService securityEpochService,
+                                  @Value("${accounts.deletion-batch-size:500}") int batchSize) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.postPurgeService = postPurgeService;
+        this.likeCounterService = likeCounterService;
+        this.likeIndexService = likeIndexService;
+        this.timelineService = timelineService;
+        this.postSearchService = postSearchService;
+        this.tagService = tagService;
+        this.hotRankingService = hotRankingService;
+        this.statsCounterService = statsCounterService;
+        this.socialGraphService = socialGraphService;
+        this.unreadCountService = unreadCountService;
+        this.notificationPreferenceService = notificationPreferenceService;
+        this.securityEpochService = securityEpochService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ban the user right away and queue the deletion of their account
+     * Returns the running job if a deletion was already requested
+     */
+    @Transactional
+    public AccountDeletionJob requestDeletion(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+
+        Optional<AccountDeletionJob> running = jobRepository.findFirstByUserIdOrderByIdDesc(userId)
+                .filter(job -> job.getStage() != Stage.DONE);
+        if (running.isPresent()) {
+            return running.get();
+        }
+
+        if (!Boolean.TRUE.equals(user.getIsBanned())) {
+            user.setIsBanned(true);
+            user.setBannedAt(LocalDateTime.now());
+            userRepository.save(user);
+            statsCounterService.onBanChanged(1);
+            securityEpochService.revokeTokens(userId);
+        }
+
+        return jobRepository.save(AccountDeletionJob.builder().userId(userId).build());
+    }
+
+    public Optional<AccountDeletionJob> getLatestJob(Long userId) {
+        return jobRepository.findFirstByUserIdOrderByIdDesc(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.deletion-interval-ms:5000}")
+    public void runPendingJobs() {
+        for (AccountDeletionJob job : jobRepository.findByStageNotOrderByIdAsc(Stage.DONE)) {
+            try {
+                run(job);
+            } catch (RuntimeException e) {
+                log.error("Account deletion job {} failed at stage {}, retrying on the next run",
+                        job.getId(), job.getStage(), e);
+                String message = String.valueOf(e.getMessage());
+                job.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                jobRepository.save(job);
+            }
+        }
+    }
+
+    private void run(AccountDeletionJob job) {
+        while (job.getStage() != Stage.DONE) {
+            long rows = runStage(job.getUserId(), job.getStage());
+
+            job.setRowsDeleted(job.getRowsDeleted() + rows);
+            job.setStage(Stage.values()[job.getStage().ordinal() + 1]);
+            job.setLastError(null);
+            if (job.getStage() == Stage.DONE) {
+                job.setFinishedAt(LocalDateTime.now());
+            }
+            job = jobRepository.save(job);
+        }
+        log.info("Account {} deleted ({} rows)", job.getUserId(), job.getRowsDeleted());
+    }
+
+    private long runStage(Long userId, Stage stage) {
+        switch (stage) {
+            case POSTS:
+                return tombstonePosts(userId);
+            case PURGE_POSTS:
+                return postPurgeService.purgeDeletedPostsByAuthor(userId);
+            case COMMENTS:
+                return postPurgeService.purgeComments("author_id = ?", userId);
+            case RESPONSES:
+                return delete("responses", "author_id = ?", userId);
+            case POST_LIKES:
+                return deleteLikes("post_likes", "post_id", userId, likeCounterService::addPostLikes, true);
+            case COMMENT_LIKES:
+                long commentLikes = deleteLikes("comment_likes", "comment_id", userId, likeCounterService::addCommentLikes, false);
+                likeIndexService.evictUser(userId);
+                return commentLikes;
+            case SUBSCRIPTIONS:
+                long subscriptions = deleteSubscriptions("follower_id", "following_id", "followers_count", userId)
+                        + deleteSubscriptions("following_id", "follower_id", "following_count", userId);
+                timelineService.invalidate(userId);
+                socialGraphService.removeUser(userId);
+                return subscriptions;
+            case NOTIFICATIONS:
+                long notifications = delete("notifications", "user_id = ?", userId)
+                        + unreadCountService.deleteNotifications(batchSize, "n.related_user_id = ?", userId);
+                unreadCountService.removeUser(userId);
+                notificationPreferenceService.removeUser(userId);
+                return notifications;
+            case REPORTS:
+                return delete("reports", "reporter_id = ?", userId);
+            case USER:
+                return deleteUserRow(userId);
+            default:
+                return 0;
+        }
+    }
+
+    private long deleteUserRow(Long userId) {
+        Optional<User> user = userRepository.findById(userId);
+        Integer rows = transactionTemplate.execute(status ->
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId));
+        if (user.isPresent() && rows != null && rows > 0) {
+            statsCounterService.onUserDeleted(Boolean.TRUE.equals(user.get().getIsBanned()),
+                    user.get().getRole() == Role.ADMIN, user.get().getCreatedAt());
+        }
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Mark the user's posts deleted in chunks; the purge stage removes them afterwards
+     * Like PostService.deletePost, the posts leave the tag index, timelines and trending
+     * tags with the chunk, and the in-memory views change only once it is committed
+     */
+    private long tombstonePosts(Long userId) {
+        long tombstoned = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT id, created_at FROM posts WHERE author_id = ? AND deleted_at IS NULL ORDER BY id LIMIT ?",
+                    PostPurgeService.ID_AND_CREATED_AT, userId, batchSize);
+            if (!rows.isEmpty()) {
+                Object[] args = new Object[rows.size() + 1];
+                args[0] = LocalDateTime.now();
+                for (int i = 0; i < rows.size(); i++) {
+                    args[i + 1] = rows.get(i).get("id");
+                }
+                List<Map<String, Object>> chunk = rows;
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(
+                            "UPDATE posts SET deleted_at = ? WHERE id IN (" + BatchDelete.placeholders(args.length - 1) + ")", args);
+                    for (Map<String, Object> row : chunk) {
+                        Long postId = ((Number) row.get("id")).longValue();
+                        tagService.removePost(postId, (LocalDateTime) row.get("created_at"));
+                        timelineService.removePost(postId, userId);
+                    }
+                });
+                for (Map<String, Object> row : rows) {
+                    Long postId = ((Number) row.get("id")).longValue();
+                    postSearchService.removePost(postId);
+                    hotRankingService.removePost(postId);
+                    statsCounterService.onPostDeleted((LocalDateTime) row.get("created_at"));
+                }
+                tombstoned += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return tombstoned;
+    }
+
+    /**
+     * Delete likes given by the user in chunks and take them back from the like counters
+     */
+    private long deleteLikes(String table, String targetColumn, Long userId,
+                             LikeCounter counter, boolean postLikes) {
+        long deleted = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, " + targetColumn + " AS target_id FROM " + table + " WHERE user_id = ? ORDER BY id LIMIT ?",
+                    userId, batchSize);
+            if (!rows.isEmpty()) {
+                Object[] ids = rows.stream().map(row -> row.get("id")).toArray();
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "DELETE FROM " + table + " WHERE id IN (" + BatchDelete.placeholders(ids.length) + ")", ids));
+                for (Map<String, Object> row : rows) {
+                    Long targetId = ((Number) row.get("target_id")).longValue();
+                    counter.add(targetId, -1);
+                    if (postLikes) {
+                        hotRankingService.onLikesChanged(targetId, -1);
+                    }
+                }
+                deleted += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return deleted;
+    }
+
+    /**
+     * Delete the user's follows (one direction) in chunks and take them back from the
+     * other users' follow counters
+     */
+    private long deleteSubscriptions(String userColumn, String otherColumn, String otherCounter, Long userId) {
+        long deleted = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, " + otherColumn + " AS other_id FROM subscriptions WHERE " + userColumn + " = ? ORDER BY id LIMIT ?",
+                    userId, batchSize);
+            if (!rows.isEmpty()) {
+                Object[] ids = rows.stream().map(row -> row.get("id")).toArray();
+                List<Object[]> others = rows.stream().map(row -> new Object[] {row.get("other_id")}).toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM subscriptions WHERE id IN (" + BatchDelete.placeholders(ids.length) + ")", ids);
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE users SET " + otherCounter + " = " + otherCounter + " - 1 WHERE id = ?", others);
+                });
+                deleted += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return deleted;
+    }
+
+    private long delete(String table, String where, Long userId) {
+        return BatchDelete.byIds(jdbcTemplate, transactionTemplate, batchSize, table, where, userId);
+    }
+
+    @FunctionalInterface
+    private interface LikeCounter {
+        void add(Long id, long delta);
+    }
+}
@@ -7,11 +7,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.TimeSeriesPointDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.AccountDeletionJob;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.Role;
+import com.blog.blogger.models.StatsRollup;
 import com.blog.blogger.repository.PostRepository;
-import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.utils.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -19,54 +23,35 @@ import org.springframework.data.domain.Sort;
 @Service
 public class AdminService {
 
-    private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final UserService userService;
     private final PostService postService;
+    private final StatsCounterService statsCounterService;
+    private final StatsRollupService statsRollupService;
 
-    public AdminService(UserRepository userRepository, PostRepository postRepository, UserService userService,
-            PostService postService) {
-        this.userRepository = userRepository;
+    public AdminService(PostRepository postRepository, UserService userService,
+            PostService postService, StatsCounterService statsCounterService,
+            StatsRollupService statsRollupService) {
         this.postRepository = postRepository;
         this.userService = userService;
         this.postService = postService;
+        this.statsCounterService = statsCounterService;
+        this.statsRollupService = statsRollupService;
     }
 
+    /**
+     * Dashboard numbers, read from the in-memory counters of StatsCounterService
+     */
     public AdminStatsDTO getDashboardStats() {
-        List<com.blog.blogger.models.User> allUsers = userRepository.findAll();
-        long totalUsers = allUsers.size();
-        long bannedUsers = allUsers.stream().filter(com.blog.blogger.models.User::getIsBanned).count();
-        long adminUsers = allUsers.stream()
-                .filter(user -> user.getRole() == Role.ADMIN)
-                .count();
-
-        long activeUsers = allUsers.stream()
-                .filter(user -> !user.getIsBanned())
-                .count();
-
-        long totalPosts = postRepository.count();
-
-        LocalDateTime startOfToday = LocalDateTime.now().toLocalDate().atStartOfDay();
-        long postsToday = postRepository.findByOrderByCreatedAtDesc().stream()
-                .filter(post -> post.getCreatedAt().isAfter(startOfToday))
-                .count();
-
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        long newUsersThisWeek = allUsers.stream()
-                .filter(user -> user.getCreatedAt().isAfter(oneWeekAgo))
-                .count();
-
-        return AdminStatsDTO.builder()
-                .totalUsers(totalUsers)
-                .totalPosts(totalPosts)
-                .totalComments(0L)
-                .activeUsers(activeUsers)
-                .bannedUsers(bannedUsers)
-                .adminUsers(adminUsers)
-                .postsToday(postsToday)
-                .commentsToday(0L)
-                .newUsersThisWeek(newUsersThisWeek)
-                .build();
+        return statsCounterService.getStats();
+    }
+
+    /**
+     * One metric over [from, to) from the pre-aggregated rollups
+     */
+    public List<TimeSeriesPointDTO> getTimeSeries(StatsRollup.Metric metric, StatsRollup.Granularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        return statsRollupService.getSeries(metric, granularity, from, to);
     }
 
     public List<UserProfileDTO> getAllUsers() {
@@ -85,8 +70,8 @@ public class AdminService {
         userService.changeUserRole(userId, newRole);
     }
 
-    public void deleteUser(Long userId) {
-        userService.deleteUser(userId);
+    public AccountDeletionJob deleteUser(Long userId) {
+        return userService.deleteUser(userId);
     }
 
     public List<com.blog.blogger.models.Post> getAllPosts() {
@@ -110,4 +95,20 @@ public class AdminService {
         return postRepository.findAll(pageable);
     }
 
+    /**
+     * Keyset-paginated moderation listing (hidden posts included)
+     * Page 5,000 costs the same as page 1 since there is no OFFSET or COUNT(*)
+     */
+    public CursorPage<Post> getPostsByCursor(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Post> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findAllFirstPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = postRepository.findAllAfter(position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rows, size, post -> new KeysetCursor(post.getCreatedAt(), post.getId()));
+    }
+
 }
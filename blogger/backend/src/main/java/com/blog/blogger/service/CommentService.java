@@ -1,5 +1,6 @@
 package com.blog.blogger.service;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -22,10 +23,20 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final CommentLikeRepository commentLikeRepository;
-
-    public CommentService(CommentRepository commentRepository, CommentLikeRepository commentLikeRepository) {
+    private final LikeCounterService likeCounterService;
+    private final LikeIndexService likeIndexService;
+    private final HotRankingService hotRankingService;
+    private final StatsCounterService statsCounterService;
+
+    public CommentService(CommentRepository commentRepository, CommentLikeRepository commentLikeRepository,
+                          LikeCounterService likeCounterService, LikeIndexService likeIndexService,
+                          HotRankingService hotRankingService, StatsCounterService statsCounterService) {
         this.commentRepository = commentRepository;
         this.commentLikeRepository = commentLikeRepository;
+        this.likeCounterService = likeCounterService;
+        this.likeIndexService = likeIndexService;
+        this.hotRankingService = hotRankingService;
+        this.statsCounterService = statsCounterService;
     }
 
      // ADD THIS METHOD: Get comment by ID
@@ -34,12 +45,17 @@ public class CommentService {
     }
 
     public Comment addComment(Comment comment) {
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        hotRankingService.onCommentsChanged(savedComment.getPost().getId(), 1);
+        statsCounterService.onCommentCreated(savedComment.getCreatedAt());
+        return savedComment;
     }
 
     public Page<Comment> getCommentsByPost(Post post, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return commentRepository.findByPost(post, pageable);
+        Page<Comment> comments = commentRepository.findByPost(post, pageable);
+        comments.forEach(comment -> comment.setLikeCount(likeCounterService.getCommentLikeCount(comment)));
+        return comments;
     }
 
     // ADD THIS METHOD: Delete a comment
@@ -53,6 +69,8 @@ public class CommentService {
         
         // Then delete the comment
         commentRepository.delete(comment);
+        hotRankingService.onCommentsChanged(comment.getPost().getId(), -1);
+        statsCounterService.onCommentDeleted(comment.getCreatedAt());
     }
     
     @Transactional
@@ -70,8 +88,11 @@ public class CommentService {
                 .build();
         commentLikeRepository.save(like);
 
-        comment.setLikeCount(comment.getLikeCount() + 1);
-        return commentRepository.save(comment);
+        likeCounterService.addCommentLikes(commentId, 1);
+        likeIndexService.onCommentLiked(user.getId(), commentId);
+        // The delta is only recorded on commit, so count this like here
+        comment.setLikeCount(Math.max(0, likeCounterService.getCommentLikeCount(comment) + 1));
+        return comment;
     }
 
     
@@ -87,14 +108,21 @@ public class CommentService {
 
         commentLikeRepository.delete(likeOpt.get());
 
-        comment.setLikeCount(Math.max(0, comment.getLikeCount() - 1));
-        return commentRepository.save(comment);
+        likeCounterService.addCommentLikes(commentId, -1);
+        likeIndexService.onCommentUnliked(user.getId(), commentId);
+        comment.setLikeCount(Math.max(0, likeCounterService.getCommentLikeCount(comment) - 1));
+        return comment;
     }
 
     
     public boolean hasUserLikedComment(Long commentId, User user) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
-        return commentLikeRepository.existsByUserAndComment(user, comment);
+        return likeIndexService.hasLikedComment(user.getId(), commentId);
+    }
+
+    /**
+     * Which of the given comments the user has liked, answered from the in-memory like index
+     */
+    public List<Long> getLikedCommentIds(List<Long> commentIds, User user) {
+        return likeIndexService.filterLikedComments(user.getId(), commentIds);
     }
 }
@@ -0,0 +1,64 @@
+package com.blog.blogger.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * FollowCountService - Repairs users.followers_count / following_count
+ *
+ * The counters are kept by SubscriptionService in the same transaction as the
+ * follow or unfollow, so they only drift through rows changed outside it (manual
+ * SQL, a failed account deletion...). This job recounts them from the
+ * subscriptions indexes, one range of user ids per transaction, and only writes
+ * the rows whose counters are off.
+ */
+@Service
+public class FollowCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowCountService.class);
+
+    private static final String FOLLOWERS = "(SELECT COUNT(*) FROM subscriptions s WHERE s.following_id = u.id)";
+    private static final String FOLLOWING = "(SELECT COUNT(*) FROM subscriptions s WHERE s.follower_id = u.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public FollowCountService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${follows.reconcile-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return number of users whose counters were corrected
+     */
+    @Scheduled(fixedDelayString = "${follows.reconcile-interval-ms:3600000}", initialDelay = 60000)
+    public long reconcile() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        String sql = "UPDATE users u SET followers_count = " + FOLLOWERS + ", following_count = " + FOLLOWING
+                + " WHERE u.id > ? AND u.id <= ?"
+                + " AND (followers_count <> " + FOLLOWERS + " OR following_count <> " + FOLLOWING + ")";
+        long fixed = 0;
+        for (long from = 0; from < maxId; from += batchSize) {
+            long lower = from;
+            Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(sql, lower, lower + batchSize));
+            fixed += rows == null ? 0 : rows;
+        }
+        if (fixed > 0) {
+            log.warn("Follow counters corrected for {} users", fixed);
+        }
+        return fixed;
+    }
+}
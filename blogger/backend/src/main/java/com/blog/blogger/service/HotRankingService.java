@@ -0,0 +1,233 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.Post;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+/**
+ * HotRankingService - "Hot" ordering of recent visible posts
+ *
+ * score = ln(1 + likes + 2 * comments) + createdAt / DECAY_SECONDS
+ *
+ * This ranks posts exactly like (1 + engagement) * e^(-age / DECAY_SECONDS),
+ * an exponential time decay, but the score of a post only changes when its
+ * likes or comments change, never with the clock. So posts are kept in a
+ * sorted set and every like, unlike, comment or hide is an O(log n) re-insert;
+ * reading a hot page walks the head of the set without recomputing anything.
+ *
+ * Only posts from the last hot.window-days are tracked; older posts are pruned
+ * hourly (their decay puts them far below any recent post anyway).
+ */
+@Service
+public class HotRankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotRankingService.class);
+
+    // Engagement has to grow e times for a post to stay level with one 12.5 hours younger
+    static final double DECAY_SECONDS = 45000;
+    static final int COMMENT_WEIGHT = 2;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final int windowDays;
+    private final Ranking ranking = new Ranking();
+
+    public HotRankingService(PostRepository postRepository,
+                             CommentRepository commentRepository,
+                             @Value("${hot.window-days:7}") int windowDays) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * One page (1-based) of post ids, hottest first
+     */
+    public List<Long> getPage(int page, int size) {
+        // long: a large page times size must not wrap around to a negative offset
+        long offset = (long) Math.max(0, page - 1) * size;
+        if (offset >= ranking.size()) {
+            return List.of();
+        }
+        return ranking.slice((int) offset, size);
+    }
+
+    public int size() {
+        return ranking.size();
+    }
+
+    /**
+     * Track a visible post (created or unhidden) with its current counts
+     */
+    public void addPost(Post post, long likes, long comments) {
+        Long postId = post.getId();
+        long createdSecond = epochSecond(post.getCreatedAt());
+        if (createdSecond < windowStart()) {
+            return;
+        }
+        AfterCommit.run(() -> ranking.put(postId, createdSecond, likes, comments));
+    }
+
+    public void removePost(Long postId) {
+        AfterCommit.run(() -> ranking.remove(postId));
+    }
+
+    public void onLikesChanged(Long postId, int delta) {
+        AfterCommit.run(() -> ranking.adjust(postId, delta, 0));
+    }
+
+    public void onCommentsChanged(Long postId, int delta) {
+        AfterCommit.run(() -> ranking.adjust(postId, 0, delta));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = postRepository.findHotCandidates(LocalDateTime.now().minusDays(windowDays));
+        for (int from = 0; from < rows.size(); from += LOAD_BATCH_SIZE) {
+            List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + LOAD_BATCH_SIZE));
+            List<Long> ids = new ArrayList<>(batch.size());
+            batch.forEach(row -> ids.add((Long) row[0]));
+
+            Map<Long, Long> commentCounts = new HashMap<>();
+            for (Object[] row : commentRepository.countByPostIds(ids)) {
+                commentCounts.put((Long) row[0], (Long) row[1]);
+            }
+            for (Object[] row : batch) {
+                Long postId = (Long) row[0];
+                ranking.put(postId, epochSecond((LocalDateTime) row[1]), ((Number) row[2]).longValue(),
+                        commentCounts.getOrDefault(postId, 0L));
+            }
+        }
+        log.info("Hot ranking loaded: {} posts", ranking.size());
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void prune() {
+        ranking.removeOlderThan(windowStart());
+    }
+
+    private long windowStart() {
+        return epochSecond(LocalDateTime.now().minusDays(windowDays));
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time == null ? 0 : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static double score(long createdSecond, long likes, long comments) {
+        long engagement = Math.max(0, likes) + COMMENT_WEIGHT * Math.max(0, comments);
+        return Math.log1p(engagement) + createdSecond / DECAY_SECONDS;
+    }
+
+    /**
+     * Posts sorted by score (ties: newest id first) plus their counters by id
+     */
+    static class Ranking {
+
+        private final ConcurrentSkipListSet<Entry> sorted = new ConcurrentSkipListSet<>();
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+        void put(long postId, long createdSecond, long likes, long comments) {
+            byId.compute(postId, (id, old) -> {
+                if (old != null) {
+                    sorted.remove(old);
+                }
+                Entry entry = new Entry(postId, createdSecond, likes, comments);
+                sorted.add(entry);
+                return entry;
+            });
+        }
+
+        /**
+         * Apply like/comment deltas to a tracked post; untracked (old) posts are ignored
+         */
+        void adjust(long postId, long likesDelta, long commentsDelta) {
+            byId.computeIfPresent(postId, (id, old) -> {
+                sorted.remove(old);
+                Entry entry = new Entry(postId, old.createdSecond,
+                        Math.max(0, old.likes + likesDelta), Math.max(0, old.comments + commentsDelta));
+                sorted.add(entry);
+                return entry;
+            });
+        }
+
+        void remove(long postId) {
+            byId.computeIfPresent(postId, (id, old) -> {
+                sorted.remove(old);
+                return null;
+            });
+        }
+
+        void removeOlderThan(long createdSecond) {
+            for (Entry entry : byId.values()) {
+                if (entry.createdSecond < createdSecond) {
+                    byId.computeIfPresent(entry.postId, (id, current) -> {
+                        sorted.remove(current);
+                        return null;
+                    });
+                }
+            }
+        }
+
+        List<Long> slice(int offset, int limit) {
+            List<Long> result = new ArrayList<>(limit);
+            int skipped = 0;
+            for (Entry entry : sorted) {
+                if (skipped++ < offset) {
+                    continue;
+                }
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(entry.postId);
+            }
+            return result;
+        }
+
+        int size() {
+            return byId.size();
+        }
+    }
+
+    static final class Entry implements Comparable<Entry> {
+
+        final long postId;
+        final long createdSecond;
+        final long likes;
+        final long comments;
+        final double score;
+
+        Entry(long postId, long createdSecond, long likes, long comments) {
+            this.postId = postId;
+            this.createdSecond = createdSecond;
+            this.likes = likes;
+            this.comments = comments;
+            this.score = score(createdSecond, likes, comments);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(other.postId, postId);
+        }
+    }
+}
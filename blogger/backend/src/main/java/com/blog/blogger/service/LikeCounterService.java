@@ -0,0 +1,224 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.models.Comment;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.utils.AfterCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * LikeCounterService - Write-behind like counters for posts and comments
+ *
+ * Like/unlike requests only record a delta in memory, so a viral post no longer
+ * serializes every like on its row lock. Pending deltas are applied on a short
+ * interval with one batched "like_count = like_count + ?" UPDATE per table.
+ *
+ * Deltas are kept in lock-striped maps: a like only locks the stripe of its id
+ * for a map merge, and a flush swaps each stripe's map for an empty one, so no
+ * concurrent update can be lost between reading and resetting a counter.
+ * Reads add the deltas that are not in the database yet (pending and in flight).
+ *
+ * Deltas are recorded after the like/unlike commits, so a rolled back like never
+ * counts. Deltas still in memory when the process dies are lost; reconcile()
+ * recounts like_count from the like tables every likes.reconcile-interval-ms and
+ * fixes those rows.
+ */
+@Service
+public class LikeCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterService.class);
+    private static final int RECONCILE_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counters postCounters = new Counters();
+    private final Counters commentCounters = new Counters();
+
+    public LikeCounterService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Record a like delta once the transaction that changed post_likes commits
+     */
+    public void addPostLikes(Long postId, long delta) {
+        AfterCommit.run(() -> postCounters.add(postId, delta));
+    }
+
+    public void addCommentLikes(Long commentId, long delta) {
+        AfterCommit.run(() -> commentCounters.add(commentId, delta));
+    }
+
+    /**
+     * Like count of a post including deltas not flushed yet
+     */
+    public int getPostLikeCount(Post post) {
+        return (int) Math.max(0, post.getLikeCount() + postCounters.pending(post.getId()));
+    }
+
+    /**
+     * Like count of a comment including deltas not flushed yet
+     */
+    public int getCommentLikeCount(Comment comment) {
+        return (int) Math.max(0, comment.getLikeCount() + commentCounters.pending(comment.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${likes.flush-interval-ms:1000}")
+    public void flush() {
+        flush(postCounters, "UPDATE posts SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?");
+        flush(commentCounters, "UPDATE comments SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?");
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Recount like_count from post_likes / comment_likes and fix the rows that drifted
+     *
+     * @return number of posts and comments corrected
+     */
+    @Scheduled(fixedDelayString = "${likes.reconcile-interval-ms:3600000}", initialDelay = 60000)
+    public long reconcile() {
+        long fixed = reconcile(postCounters, "posts", "post_likes", "post_id")
+                + reconcile(commentCounters, "comments", "comment_likes", "comment_id");
+        if (fixed > 0) {
+            log.warn("Like counters corrected for {} posts and comments", fixed);
+        }
+        return fixed;
+    }
+
+    private long reconcile(Counters counters, String table, String likesTable, String likesColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        String actual = "(SELECT COUNT(*) FROM " + likesTable + " l WHERE l." + likesColumn + " = t.id)";
+        String select = "SELECT t.id, " + actual + " AS actual FROM " + table + " t"
+                + " WHERE t.id > ? AND t.id <= ? AND t.like_count <> " + actual;
+        String update = "UPDATE " + table + " SET like_count = ? WHERE id = ?";
+        long fixed = 0;
+        for (long from = 0; from < maxId; from += RECONCILE_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList(select, from, from + RECONCILE_BATCH_SIZE)) {
+                Long id = ((Number) row.get("id")).longValue();
+                // Deltas not flushed yet would be applied on top of the recount; leave those rows for the next run
+                if (counters.pending(id) == 0) {
+                    rows.add(new Object[] { row.get("actual"), id });
+                }
+            }
+            if (!rows.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(update, rows));
+                fixed += rows.size();
+            }
+        }
+        return fixed;
+    }
+
+    private void flush(Counters counters, String sql) {
+        Map<Long, Long> deltas = counters.beginFlush();
+        if (deltas.isEmpty()) {
+            counters.endFlush();
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                args.add(new Object[] { delta, id });
+            }
+        });
+
+        try {
+            // All or nothing, so the deltas put back on failure were never partly applied
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+            counters.endFlush();
+        } catch (RuntimeException e) {
+            log.error("Like counter flush failed, keeping {} deltas for the next run", args.size(), e);
+            counters.endFlush();
+            deltas.forEach(counters::add);
+        }
+    }
+
+    /**
+     * Pending deltas by id, split over a fixed number of independently locked stripes
+     */
+    static class Counters {
+
+        private static final int STRIPES = 64;
+
+        private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        @SuppressWarnings("unchecked")
+        private final Map<Long, Long>[] pending = new Map[STRIPES];
+
+        // Deltas taken by the running flush, still visible to readers until written
+        private volatile Map<Long, Long> inFlight = Map.of();
+
+        Counters() {
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new ReentrantLock();
+                pending[i] = new HashMap<>();
+            }
+        }
+
+        void add(Long id, long delta) {
+            int stripe = stripe(id);
+            locks[stripe].lock();
+            try {
+                pending[stripe].merge(id, delta, Long::sum);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        long pending(Long id) {
+            int stripe = stripe(id);
+            locks[stripe].lock();
+            try {
+                return pending[stripe].getOrDefault(id, 0L) + inFlight.getOrDefault(id, 0L);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        Map<Long, Long> beginFlush() {
+            Map<Long, Long> taken = new ConcurrentHashMap<>();
+            inFlight = taken;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i].lock();
+                try {
+                    taken.putAll(pending[i]);
+                    pending[i] = new HashMap<>();
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+            return taken;
+        }
+
+        void endFlush() {
+            inFlight = Map.of();
+        }
+
+        private static int stripe(Long id) {
+            return (int) Math.floorMod(id, (long) STRIPES);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.blog.blogger.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.repository.CommentLikeRepository;
+import com.blog.blogger.repository.PostLikeRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.SortedLongSet;
+
+/**
+ * LikeIndexService - In-memory "what did this user like" index
+ *
+ * Each user's liked post ids and liked comment ids are kept as sorted primitive
+ * arrays (8 bytes per like), loaded with one query the first time the user is
+ * looked up and kept current by like/unlike. "Did I like these 20 posts?" is
+ * then answered from memory in one call instead of 20 requests and 40 queries.
+ *
+ * Users not looked up for likes.index-idle-ttl-ms are dropped, so memory follows
+ * the active users rather than everyone who ever liked something; the next
+ * lookup loads them again.
+ */
+@Service
+public class LikeIndexService {
+
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+
+    private final long idleTtlMillis;
+
+    private final Map<Long, Entry> likedPosts = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> likedComments = new ConcurrentHashMap<>();
+
+    public LikeIndexService(PostLikeRepository postLikeRepository,
+                            CommentLikeRepository commentLikeRepository,
+                            @Value("${likes.index-idle-ttl-ms:1800000}") long idleTtlMillis) {
+        this.postLikeRepository = postLikeRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.idleTtlMillis = idleTtlMillis;
+    }
+
+    public boolean hasLikedPost(Long userId, Long postId) {
+        return postsOf(userId).contains(postId);
+    }
+
+    public boolean hasLikedComment(Long userId, Long commentId) {
+        return commentsOf(userId).contains(commentId);
+    }
+
+    /**
+     * Keep only the post ids the user has liked
+     */
+    public List<Long> filterLikedPosts(Long userId, Collection<Long> postIds) {
+        SortedLongSet liked = postsOf(userId);
+        return postIds.stream().filter(liked::contains).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Keep only the comment ids the user has liked
+     */
+    public List<Long> filterLikedComments(Long userId, Collection<Long> commentIds) {
+        SortedLongSet liked = commentsOf(userId);
+        return commentIds.stream().filter(liked::contains).distinct().collect(Collectors.toList());
+    }
+
+    public void onPostLiked(Long userId, Long postId) {
+        AfterCommit.run(() -> update(likedPosts, userId, set -> set.add(postId)));
+    }
+
+    public void onPostUnliked(Long userId, Long postId) {
+        AfterCommit.run(() -> update(likedPosts, userId, set -> set.remove(postId)));
+    }
+
+    public void onCommentLiked(Long userId, Long commentId) {
+        AfterCommit.run(() -> update(likedComments, userId, set -> set.add(commentId)));
+    }
+
+    public void onCommentUnliked(Long userId, Long commentId) {
+        AfterCommit.run(() -> update(likedComments, userId, set -> set.remove(commentId)));
+    }
+
+    /**
+     * Forget everything about a user (account deleted)
+     */
+    public void evictUser(Long userId) {
+        likedPosts.remove(userId);
+        likedComments.remove(userId);
+    }
+
+    /**
+     * Drop the users whose likes were not looked up within the idle TTL
+     */
+    @Scheduled(fixedDelayString = "${likes.index-evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTtlMillis;
+        // values().removeIf only removes an entry still mapped to the value it tested
+        likedPosts.values().removeIf(entry -> entry.lastAccess < cutoff);
+        likedComments.values().removeIf(entry -> entry.lastAccess < cutoff);
+    }
+
+    private SortedLongSet postsOf(Long userId) {
+        // Loaded under the map's bin lock so a concurrent like waits for the load instead of being lost
+        return likedPosts.computeIfAbsent(userId,
+                id -> new Entry(SortedLongSet.of(toArray(postLikeRepository.findPostIdsByUserId(id))))).touch();
+    }
+
+    private SortedLongSet commentsOf(Long userId) {
+        return likedComments.computeIfAbsent(userId,
+                id -> new Entry(SortedLongSet.of(toArray(commentLikeRepository.findCommentIdsByUserId(id))))).touch();
+    }
+
+    private static void update(Map<Long, Entry> index, Long userId, Function<SortedLongSet, Boolean> change) {
+        // Users that are not loaded yet (or were evicted) will read the committed row when they are
+        index.computeIfPresent(userId, (id, entry) -> {
+            change.apply(entry.set);
+            return entry;
+        });
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * A user's liked ids and when they were last looked up
+     */
+    private static final class Entry {
+
+        private final SortedLongSet set;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        Entry(SortedLongSet set) {
+            this.set = set;
+        }
+
+        SortedLongSet touch() {
+            lastAccess = System.currentTimeMillis();
+            return set;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.PostDTO;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.PostRepository;
+
+/**
+ * PostFeedService - Builds the lean read model used by the feed endpoints
+ *
+ * A feed page is converted with a fixed number of queries whatever its size:
+ * the page itself (author fetched in the same query), one query for the tags
+ * of every post on the page and one grouped query for their comment counts.
+ * Comments themselves are never serialized into the feed, and neither is the
+ * content: a post carries an excerpt, the full text comes from GET /auth/posts/{id}.
+ */
+@Service
+public class PostFeedService {
+
+    private static final int EXCERPT_LENGTH = 200;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeCounterService likeCounterService;
+
+    public PostFeedService(PostRepository postRepository, CommentRepository commentRepository,
+                           LikeCounterService likeCounterService) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeCounterService = likeCounterService;
+    }
+
+    /**
+     * Convert a page of posts (author already fetched) to feed DTOs, keeping the order
+     */
+    public List<PostDTO> toFeed(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = posts.stream().map(Post::getId).collect(Collectors.toList());
+
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findTagsByPostIds(ids)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<Long, Long> commentCounts = new HashMap<>();
+        for (Object[] row : commentRepository.countByPostIds(ids)) {
+            commentCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        return posts.stream()
+                .map(post -> toDTO(post,
+                        tagsByPost.getOrDefault(post.getId(), List.of()),
+                        commentCounts.getOrDefault(post.getId(), 0L).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private PostDTO toDTO(Post post, List<String> tags, int commentCount) {
+        User author = post.getAuthor();
+
+        return PostDTO.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .excerpt(excerpt(post.getContent()))
+                .mediaType(post.getMediaType())
+                .mediaUrl(post.getMediaUrl())
+                .author(PostDTO.AuthorDTO.builder()
+                        .id(author.getId())
+                        .username(author.getUsername())
+                        .fullName(author.getFullName())
+                        .avatar(author.getAvatar())
+                        .profilePictureUrl(author.getProfilePictureUrl())
+                        .build())
+                .likeCount(likeCounterService.getPostLikeCount(post))
+                .isHidden(post.getIsHidden())
+                .tags(tags)
+                .commentCount(commentCount)
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+
+    static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int cut = content.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (cut <= 0) {
+            cut = EXCERPT_LENGTH;
+        }
+        return content.substring(0, cut).trim() + "...";
+    }
+}
@@ -0,0 +1,169 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.services.UnreadCountService;
+import com.blog.blogger.utils.BatchDelete;
+
+/**
+ * PostPurgeService - Removes tombstoned posts and everything attached to them
+ *
+ * PostService.deletePost only sets posts.deleted_at, which hides the post from
+ * every read path at once. This job then deletes the post's rows in bounded,
+ * set-based batches, each batch in its own short transaction, so a post with
+ * thousands of comments never holds locks for long:
+ * comment likes, responses and comments (per chunk of comment ids), post likes,
+ * reports, notifications, tags, the media file and finally the post row.
+ *
+ * Every step is idempotent, so a purge interrupted by a restart simply resumes.
+ */
+@Service
+public class PostPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostPurgeService.class);
+
+    // Rows of "SELECT id, created_at"; created_at read as LocalDateTime whatever type the driver maps DATETIME to
+    static final RowMapper<Map<String, Object>> ID_AND_CREATED_AT = (rs, i) -> {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("created_at", rs.getObject("created_at", LocalDateTime.class));
+        return row;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+    private final StatsCounterService statsCounterService;
+    private final UnreadCountService unreadCountService;
+    private final int batchSize;
+    private final int postsPerRun;
+
+    public PostPurgeService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            FileStorageService fileStorageService,
+                            StatsCounterService statsCounterService,
+                            UnreadCountService unreadCountService,
+                            @Value("${posts.purge-batch-size:500}") int batchSize,
+                            @Value("${posts.purge-posts-per-run:20}") int postsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fileStorageService = fileStorageService;
+        this.statsCounterService = statsCounterService;
+        this.unreadCountService = unreadCountService;
+        this.batchSize = batchSize;
+        this.postsPerRun = postsPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.purge-interval-ms:10000}")
+    public void purgeDeletedPosts() {
+        List<Long> postIds = jdbcTemplate.queryForList(
+                "SELECT id FROM posts WHERE deleted_at IS NOT NULL ORDER BY id LIMIT ?", Long.class, postsPerRun);
+        for (Long postId : postIds) {
+            try {
+                purgePost(postId);
+            } catch (RuntimeException e) {
+                log.error("Purge of deleted post {} failed, retrying on the next run", postId, e);
+            }
+        }
+    }
+
+    /**
+     * Purge every tombstoned post of an author (their account is being deleted)
+     */
+    public long purgeDeletedPostsByAuthor(Long authorId) {
+        long purged = 0;
+        List<Long> postIds;
+        do {
+            postIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM posts WHERE author_id = ? AND deleted_at IS NOT NULL ORDER BY id LIMIT ?",
+                    Long.class, authorId, postsPerRun);
+            postIds.forEach(this::purgePost);
+            purged += postIds.size();
+        } while (!postIds.isEmpty());
+        return purged;
+    }
+
+    /**
+     * Delete the comments matching where, in chunks: their likes and responses first,
+     * then the comments themselves
+     *
+     * @return number of comments deleted
+     */
+    public long purgeComments(String where, Object... args) {
+        String select = "SELECT id, created_at FROM comments WHERE " + where + " ORDER BY id LIMIT " + batchSize;
+        long deleted = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.query(select, ID_AND_CREATED_AT, args);
+            if (!rows.isEmpty()) {
+                String in = BatchDelete.placeholders(rows.size());
+                Object[] ids = rows.stream().map(row -> row.get("id")).toArray();
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM comment_likes WHERE comment_id IN (" + in + ")", ids);
+                    jdbcTemplate.update("DELETE FROM responses WHERE comment_id IN (" + in + ")", ids);
+                    jdbcTemplate.update("DELETE FROM comments WHERE id IN (" + in + ")", ids);
+                });
+                for (Map<String, Object> row : rows) {
+                    statsCounterService.onCommentDeleted((LocalDateTime) row.get("created_at"));
+                }
+                deleted += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return deleted;
+    }
+
+    /**
+     * Delete a tombstoned post and its dependent rows, one bounded batch per transaction
+     */
+    public void purgePost(Long postId) {
+        purgeComments("post_id = ?", postId);
+
+        BatchDelete.byIds(jdbcTemplate, transactionTemplate, batchSize, "post_likes", "post_id = ?", postId);
+        BatchDelete.byIds(jdbcTemplate, transactionTemplate, batchSize, "reports", "post_id = ?", postId);
+        unreadCountService.deleteNotifications(batchSize, "n.related_post_id = ?", postId);
+
+        String mediaUrl = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM post_tags WHERE post_id = ?", postId);
+            jdbcTemplate.update("DELETE FROM post_tag_index WHERE post_id = ?", postId);
+
+            List<String> media = jdbcTemplate.queryForList(
+                    "SELECT media_url FROM posts WHERE id = ? AND deleted_at IS NOT NULL", String.class, postId);
+            jdbcTemplate.update("DELETE FROM posts WHERE id = ? AND deleted_at IS NOT NULL", postId);
+            return media.isEmpty() ? null : media.get(0);
+        });
+
+        deleteMedia(mediaUrl);
+    }
+
+    private void deleteMedia(String mediaUrl) {
+        if (mediaUrl == null || !mediaUrl.startsWith("/uploads/")) {
+            return;
+        }
+        String filename = mediaUrl.substring("/uploads/".length());
+        if (filename.isEmpty() || filename.contains("/") || filename.contains("\\") || filename.contains("..")) {
+            return; // only files stored by FileStorageService, never a path
+        }
+        Integer stillUsed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM posts WHERE media_url = ?", Integer.class, mediaUrl);
+        if (stillUsed != null && stillUsed > 0) {
+            return;
+        }
+        try {
+            fileStorageService.deleteFile(filename);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete media {} of a purged post: {}", mediaUrl, e.getMessage());
+        }
+    }
+}
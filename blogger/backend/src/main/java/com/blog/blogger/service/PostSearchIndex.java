@@ -0,0 +1,264 @@
+package com.blog.blogger.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * PostSearchIndex - In-process inverted index over post title, content and tags
+ *
+ * Documents are tokenized into lowercase terms, title and tag terms count more
+ * than content terms, and queries are ranked with BM25. The index also keeps
+ * each document's term frequencies (forward index) so a post can be removed or
+ * replaced, and so the whole index can be written to and read from a segment file.
+ *
+ * Thread safe: searches share a read lock, updates take the write lock.
+ */
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int SEGMENT_MAGIC = 0x42534958; // "BSIX"
+    private static final int SEGMENT_VERSION = 1;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    // term -> (post id -> weighted term frequency)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // post id -> its weighted term frequencies
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    // post id -> sum of its weighted term frequencies
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add or replace a post
+     */
+    public void put(long postId, String title, String content, Collection<String> tags) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, content, 1);
+        if (tags != null) {
+            for (String tag : tags) {
+                addTerms(terms, tag, TAG_WEIGHT);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            putLocked(postId, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank every post matching at least one query term, best first
+     *
+     * @param offset number of hits to skip
+     * @param limit maximum number of ids to return
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().collect(Collectors.toList());
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(0, List.of());
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            double avgLength = docCount == 0 ? 0 : (double) totalLength / docCount;
+
+            for (String term : queryTerms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = lengths.get(posting.getKey());
+                    double norm = tf + K1 * (1 - B + B * length / avgLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+
+        List<Long> ids = ranked.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return new SearchResult(ranked.size(), ids);
+    }
+
+    /**
+     * Write the whole index as a segment (forward index only, postings are rebuilt on load)
+     */
+    public void writeSegment(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Map<String, Integer>> document : documents.entrySet()) {
+                out.writeLong(document.getKey());
+                out.writeInt(document.getValue().size());
+                for (Map.Entry<String, Integer> term : document.getValue().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the content of this index with a segment written by writeSegment
+     */
+    public void readSegment(DataInputStream in) throws IOException {
+        if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+            throw new IOException("Not a search index segment");
+        }
+        int docCount = in.readInt();
+        Map<Long, Map<String, Integer>> loaded = new HashMap<>(docCount * 2);
+        for (int i = 0; i < docCount; i++) {
+            long postId = in.readLong();
+            int termCount = in.readInt();
+            Map<String, Integer> terms = new HashMap<>(termCount * 2);
+            for (int j = 0; j < termCount; j++) {
+                terms.put(in.readUTF(), in.readInt());
+            }
+            loaded.put(postId, terms);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            loaded.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercase letter/digit terms, dropping stop words and one-letter terms
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() < 2 || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            terms.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void putLocked(long postId, Map<String, Integer> terms) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        int length = documentLength(terms);
+        documents.put(postId, terms);
+        lengths.put(postId, length);
+        totalLength += length;
+        terms.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, tf));
+    }
+
+    private void removeLocked(long postId) {
+        Map<String, Integer> terms = documents.remove(postId);
+        if (terms == null) {
+            return;
+        }
+        totalLength -= lengths.remove(postId);
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(postId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static int documentLength(Map<String, Integer> terms) {
+        int length = 0;
+        for (int tf : terms.values()) {
+            length += tf;
+        }
+        return length;
+    }
+
+    /**
+     * One page of ranked post ids plus the total number of hits
+     */
+    @Data
+    @AllArgsConstructor
+    public static class SearchResult {
+        private long total;
+        private List<Long> postIds;
+    }
+}
@@ -0,0 +1,282 @@
+package com.blog.blogger.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.Post;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+/**
+ * PostSearchService - Keeps the post search index current and persisted
+ *
+ * The index is updated incrementally by the post write paths. It is persisted
+ * to local files so a restart does not need a full rebuild:
+ * - segment-{gen}.seg : full snapshot of the index
+ * - journal-{gen}.log : ids of posts changed after snapshot gen-1 ("U id" / "D id")
+ *
+ * On startup the latest segment is loaded and the newer journals are replayed
+ * (changed posts are re-read from the database). Replaying is idempotent, so a
+ * change that made it into both a segment and a journal is harmless.
+ * Without any segment the index is rebuilt from the posts table in id order.
+ */
+@Service
+public class PostSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final Path indexDir;
+    private final PostSearchIndex index = new PostSearchIndex();
+
+    private final Object journalLock = new Object();
+    private long generation;
+    private boolean dirty;
+
+    public PostSearchService(PostRepository postRepository,
+                             @Value("${search.index-dir:search-index}") String indexDir) {
+        this.postRepository = postRepository;
+        this.indexDir = Paths.get(indexDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Search visible posts, best match first
+     *
+     * @param page 1-based page number
+     */
+    public PostSearchIndex.SearchResult search(String query, int page, int size) {
+        // long: a large page times size must not wrap around to a negative offset
+        int offset = (int) Math.min(Integer.MAX_VALUE, (long) Math.max(0, page - 1) * size);
+        return index.search(query, offset, size);
+    }
+
+    /**
+     * Index (or re-index) a visible post once the current transaction commits
+     */
+    public void indexPost(Post post) {
+        Long postId = post.getId();
+        String title = post.getTitle();
+        String content = post.getContent();
+        List<String> tags = post.getTags() == null ? List.of() : new ArrayList<>(post.getTags());
+        AfterCommit.run(() -> {
+            synchronized (journalLock) {
+                index.put(postId, title, content, tags);
+                appendJournal("U " + postId);
+            }
+        });
+    }
+
+    /**
+     * Remove a post (hidden or deleted) once the current transaction commits
+     */
+    public void removePost(Long postId) {
+        AfterCommit.run(() -> {
+            synchronized (journalLock) {
+                index.remove(postId);
+                appendJournal("D " + postId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            Files.createDirectories(indexDir);
+            long segmentGen = latestGeneration("segment-", ".seg");
+            if (segmentGen < 0) {
+                rebuild();
+                return;
+            }
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(segmentFile(segmentGen))))) {
+                index.readSegment(in);
+            }
+            generation = Math.max(segmentGen + 1, latestGeneration("journal-", ".log"));
+            replayJournals(segmentGen);
+            log.info("Search index loaded: {} posts (segment {})", index.size(), segmentGen);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load the search index from {}, rebuilding it", indexDir, e);
+            rebuild();
+        }
+    }
+
+    /**
+     * Write a new segment when the index changed, then drop the files it replaces
+     */
+    @Scheduled(fixedDelayString = "${search.snapshot-interval-ms:300000}", initialDelayString = "${search.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long segmentGen;
+        synchronized (journalLock) {
+            if (!dirty) {
+                return;
+            }
+            // Later changes go to the next journal; everything in journals <= segmentGen is in the segment
+            segmentGen = generation;
+            generation++;
+            dirty = false;
+        }
+
+        try {
+            Path tmp = indexDir.resolve("segment.tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                index.writeSegment(out);
+            }
+            Files.move(tmp, segmentFile(segmentGen), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteOlderThan(segmentGen);
+        } catch (IOException e) {
+            log.error("Could not write search index segment {}", segmentGen, e);
+            synchronized (journalLock) {
+                dirty = true;
+            }
+        }
+    }
+
+    private void rebuild() {
+        long afterId = 0;
+        int indexed = 0;
+        while (true) {
+            List<Post> batch = postRepository.findVisibleAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            indexBatch(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+            indexed += batch.size();
+        }
+        log.info("Search index rebuilt from the database: {} posts", indexed);
+
+        synchronized (journalLock) {
+            dirty = true;
+        }
+        snapshot();
+    }
+
+    private void replayJournals(long segmentGen) throws IOException {
+        // Last operation per post wins
+        Map<Long, Boolean> upserts = new LinkedHashMap<>();
+        for (long gen = segmentGen + 1; gen <= generation; gen++) {
+            Path journal = journalFile(gen);
+            if (!Files.exists(journal)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length == 2) {
+                    upserts.put(Long.parseLong(parts[1]), "U".equals(parts[0]));
+                }
+            }
+        }
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        List<Long> changedIds = new ArrayList<>(upserts.keySet());
+        changedIds.forEach(index::remove);
+        List<Long> toFetch = changedIds.stream().filter(upserts::get).collect(Collectors.toList());
+        for (int from = 0; from < toFetch.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> chunk = toFetch.subList(from, Math.min(toFetch.size(), from + REBUILD_BATCH_SIZE));
+            List<Post> posts = postRepository.findByIdIn(chunk).stream()
+                    .filter(post -> !Boolean.TRUE.equals(post.getIsHidden()))
+                    .collect(Collectors.toList());
+            indexBatch(posts);
+        }
+        synchronized (journalLock) {
+            dirty = true;
+        }
+        log.info("Search index journal replayed: {} changed posts", changedIds.size());
+    }
+
+    /**
+     * Index a batch of posts, loading their tags with one query instead of one per post
+     */
+    private void indexBatch(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findTagsByPostIds(posts.stream().map(Post::getId).collect(Collectors.toList()))) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Post post : posts) {
+            index.put(post.getId(), post.getTitle(), post.getContent(), tagsByPost.get(post.getId()));
+        }
+    }
+
+    private void appendJournal(String line) {
+        dirty = true;
+        try {
+            Files.writeString(journalFile(generation), line + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // The in-memory index is still correct; the next snapshot persists the change
+            log.warn("Could not append to search journal: {}", e.getMessage());
+        }
+    }
+
+    private long latestGeneration(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(indexDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .mapToLong(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .max()
+                    .orElse(-1);
+        }
+    }
+
+    private void deleteOlderThan(long segmentGen) throws IOException {
+        try (Stream<Path> files = Files.list(indexDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("segment-") && name.endsWith(".seg")
+                        && generationOf(name, "segment-", ".seg") < segmentGen) {
+                    Files.deleteIfExists(file);
+                } else if (name.startsWith("journal-") && name.endsWith(".log")
+                        && generationOf(name, "journal-", ".log") <= segmentGen) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long generationOf(String name, String prefix, String suffix) {
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private Path segmentFile(long gen) {
+        return indexDir.resolve("segment-" + gen + ".seg");
+    }
+
+    private Path journalFile(long gen) {
+        return indexDir.resolve("journal-" + gen + ".log");
+    }
+}
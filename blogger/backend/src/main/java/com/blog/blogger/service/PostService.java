@@ -1,25 +1,31 @@
 package com.blog.blogger.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.blog.blogger.dto.CursorPage;
 import com.blog.blogger.models.Post;
-import com.blog.blogger.models.Comment;
 import com.blog.blogger.models.PostLike;
 import com.blog.blogger.models.User;
-import com.blog.blogger.repository.CommentLikeRepository;
 import com.blog.blogger.repository.CommentRepository;
 import com.blog.blogger.repository.PostLikeRepository;
 import com.blog.blogger.repository.PostRepository;
 import com.blog.blogger.repository.ReportRepository;
+import com.blog.blogger.services.NotificationFanoutService;
+import com.blog.blogger.utils.KeysetCursor;
 
 import jakarta.validation.ValidationException;
 
@@ -36,9 +42,6 @@ public class PostService {
     @Autowired
     private CommentRepository commentRepository;
 
-    @Autowired
-    private CommentLikeRepository commentLikeRepository;
-
     @Autowired
     private ReportRepository reportRepository;
 
@@ -48,11 +51,55 @@ public class PostService {
     @Autowired
     private com.blog.blogger.services.NotificationService notificationService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private LikeIndexService likeIndexService;
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private StatsCounterService statsCounterService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
     public Page<Post> getAllPosts(int page, int size) {
          Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createdAt").descending());
         return postRepository.findByIsHiddenFalseOrIsHiddenIsNull(pageable);
     }
 
+    /**
+     * Keyset-paginated public feed: no OFFSET scan and no COUNT(*)
+     *
+     * @param cursor nextCursor of the previous page, or null/blank for the first page
+     */
+    public CursorPage<Post> getPostsByCursor(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Post> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findVisibleFirstPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = postRepository.findVisibleAfter(position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rows, size, post -> new KeysetCursor(post.getCreatedAt(), post.getId()));
+    }
+
     
     public Page<Post> getAllPostsIncludingHidden(int page, int size) {
          Pageable pageable = PageRequest.of(page - 1, size, Sort.by("createdAt").descending());
@@ -60,18 +107,84 @@ public class PostService {
     }
 
     
-    public List<Post> getPostsFromFollowedUsers(String currentUsername) {
-        List<Long> followingIds = subscriptionService.getFollowingIds(currentUsername);
-        if (followingIds.isEmpty()) {
+    public List<Post> getPostsFromFollowedUsers(User currentUser, int page, int size) {
+        List<Long> postIds = timelineService.getPage(currentUser.getId(), page, size);
+        if (postIds.isEmpty()) {
             return List.of();
         }
-        return postRepository.findNonHiddenPostsByAuthorIds(followingIds);
+
+        Map<Long, Post> postsById = postRepository.findByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // Keep the timeline order, skip anything deleted or hidden since it was pushed
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(post -> post != null && !Boolean.TRUE.equals(post.getIsHidden()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Full-text search over visible posts, best match first
+     *
+     * @return the matching posts of the requested page plus the total number of hits
+     */
+    public Page<Post> searchPosts(String query, int page, int size) {
+        page = Math.max(1, page);
+        size = Math.max(1, Math.min(size, 100));
+        PostSearchIndex.SearchResult result = postSearchService.search(query, page, size);
+        Pageable pageable = PageRequest.of(Math.max(0, page - 1), size);
+        if (result.getPostIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.getTotal());
+        }
+
+        Map<Long, Post> postsById = postRepository.findByIdIn(result.getPostIds()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<Post> posts = result.getPostIds().stream()
+                .map(postsById::get)
+                .filter(post -> post != null && !Boolean.TRUE.equals(post.getIsHidden()))
+                .collect(Collectors.toList());
+        return new PageImpl<>(posts, pageable, result.getTotal());
+    }
+
+    /**
+     * One page (1-based) of the "hot" feed: recent visible posts ranked by likes,
+     * comments and age, read from the in-memory ranking
+     */
+    public Page<Post> getHotPosts(int page, int size) {
+        page = Math.max(1, page);
+        size = Math.max(1, Math.min(size, 100));
+        List<Long> postIds = hotRankingService.getPage(page, size);
+        Pageable pageable = PageRequest.of(Math.max(0, page - 1), size);
+        if (postIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hotRankingService.size());
+        }
+
+        Map<Long, Post> postsById = postRepository.findByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<Post> posts = postIds.stream()
+                .map(postsById::get)
+                .filter(post -> post != null && !Boolean.TRUE.equals(post.getIsHidden()))
+                .collect(Collectors.toList());
+        return new PageImpl<>(posts, pageable, hotRankingService.size());
     }
 
     public Optional<Post> getPostById(Long id) {
         return postRepository.findById(id);
     }
 
+    /**
+     * Same as getPostById, with likes that are not flushed yet included in likeCount
+     */
+    public Optional<Post> getPostForDisplay(Long id) {
+        return postRepository.findById(id)
+                .map(post -> {
+                    post.setLikeCount(likeCounterService.getPostLikeCount(post));
+                    return post;
+                });
+    }
+
     @Transactional
     public Post createPost(Post post) {
 
@@ -87,32 +200,41 @@ public class PostService {
     }
         post.setTitle(title);
         post.setContent(content);    
+        post.setTags(TagService.normalize(post.getTags()));
 
         Post savedPost = postRepository.save(post);
         System.out.println(savedPost.getContent());
 
-        List<User> followers = subscriptionService.getFollowers(savedPost.getAuthor());
-        notificationService.notifyFollowersAboutNewPost(savedPost, followers);
+        timelineService.fanOut(savedPost, socialGraphService.followerIds(savedPost.getAuthor().getId()));
+        notificationFanoutService.enqueue(savedPost);
+        tagService.syncPost(savedPost);
+        postSearchService.indexPost(savedPost);
+        hotRankingService.addPost(savedPost, 0, 0);
+        statsCounterService.onPostCreated(savedPost.getCreatedAt());
 
         return savedPost;
     }
 
+    /**
+     * Delete a post: it becomes a tombstone (hidden from every read) right away,
+     * its likes, comments and media are removed later by PostPurgeService
+     */
     @Transactional
     public void deletePost(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
 
-        postLikeRepository.deleteByPost(post);
-
-        List<Comment> comments = commentRepository.findByPost(post);
-        for (Comment comment : comments) {
-            commentLikeRepository.deleteByComment(comment);
-        }
-        commentRepository.deleteAll(comments);
+        post.setDeletedAt(LocalDateTime.now());
+        postRepository.save(post);
 
-        reportRepository.deleteByPost(post);
+        // Reports are listed by admins, drop them now rather than leave them pointing at a tombstone
+        reportRepository.deleteAllByPostId(post.getId());
+        tagService.removePost(post);
 
-        postRepository.delete(post);
+        timelineService.removePost(post.getId(), post.getAuthor().getId());
+        postSearchService.removePost(post.getId());
+        hotRankingService.removePost(post.getId());
+        statsCounterService.onPostDeleted(post.getCreatedAt());
     }
 
     
@@ -126,8 +248,16 @@ public class PostService {
         existingPost.setContent(updatedPost.getContent());
         existingPost.setMediaType(updatedPost.getMediaType());
         existingPost.setMediaUrl(updatedPost.getMediaUrl());
+        if (updatedPost.getTags() != null) {
+            existingPost.setTags(TagService.normalize(updatedPost.getTags()));
+        }
 
-        return postRepository.save(existingPost);
+        Post savedPost = postRepository.save(existingPost);
+        if (!Boolean.TRUE.equals(savedPost.getIsHidden())) {
+            tagService.syncPost(savedPost);
+            postSearchService.indexPost(savedPost);
+        }
+        return savedPost;
     }
 
     
@@ -146,12 +276,15 @@ public class PostService {
                 .build();
         postLikeRepository.save(like);
 
-        post.setLikeCount(post.getLikeCount() + 1);
-        Post savedPost = postRepository.save(post);
+        likeCounterService.addPostLikes(postId, 1);
+        likeIndexService.onPostLiked(user.getId(), postId);
+        hotRankingService.onLikesChanged(postId, 1);
+        // The delta is only recorded on commit, so count this like here
+        post.setLikeCount(Math.max(0, likeCounterService.getPostLikeCount(post) + 1));
 
-        notificationService.notifyUserAboutPostLike(savedPost, user);
+        notificationService.notifyUserAboutPostLike(post, user);
 
-        return savedPost;
+        return post;
     }
 
     
@@ -166,15 +299,23 @@ public class PostService {
         }
 
         postLikeRepository.delete(likeOpt.get());
-        post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
-        return postRepository.save(post);
+        likeCounterService.addPostLikes(postId, -1);
+        likeIndexService.onPostUnliked(user.getId(), postId);
+        hotRankingService.onLikesChanged(postId, -1);
+        post.setLikeCount(Math.max(0, likeCounterService.getPostLikeCount(post) - 1));
+        return post;
     }
 
     
     public boolean hasUserLikedPost(Long postId, User user) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        return postLikeRepository.existsByUserAndPost(user, post);
+        return likeIndexService.hasLikedPost(user.getId(), postId);
+    }
+
+    /**
+     * Which of the given posts the user has liked, answered from the in-memory like index
+     */
+    public List<Long> getLikedPostIds(List<Long> postIds, User user) {
+        return likeIndexService.filterLikedPosts(user.getId(), postIds);
     }
 
     
@@ -183,7 +324,12 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
         post.setIsHidden(true);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        timelineService.removePost(savedPost.getId(), savedPost.getAuthor().getId());
+        tagService.removePost(savedPost);
+        postSearchService.removePost(savedPost.getId());
+        hotRankingService.removePost(savedPost.getId());
+        return savedPost;
     }
 
     
@@ -192,6 +338,15 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found with id: " + postId));
         post.setIsHidden(false);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        timelineService.restorePost(savedPost);
+        tagService.syncPost(savedPost);
+        postSearchService.indexPost(savedPost);
+
+        long comments = commentRepository.countByPostIds(List.of(postId)).stream()
+                .mapToLong(row -> (Long) row[1])
+                .sum();
+        hotRankingService.addPost(savedPost, likeCounterService.getPostLikeCount(savedPost), comments);
+        return savedPost;
     }
 }
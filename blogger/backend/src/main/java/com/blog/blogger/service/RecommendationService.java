@@ -0,0 +1,304 @@
+package com.blog.blogger.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.repository.PostRepository;
+
+/**
+ * RecommendationService - "Who to follow" from friends of friends
+ *
+ * Candidates are the accounts followed by the accounts the viewer follows
+ * (second degree in the social graph), minus the viewer and everyone they
+ * already follow. The adjacency lists come from SocialGraphService, so counting
+ * is pure memory work; it is split over the viewer's following set with
+ * fork/join (SPLIT_THRESHOLD accounts per leaf) and merged in primitive maps.
+ *
+ * score = mutuals * (1 + e^(-days since last post / ACTIVITY_DECAY_DAYS))
+ * so an active account counts up to twice as much as a silent one with the same
+ * number of mutual follows. Activity is one grouped query over the top
+ * MAX_RESULTS * 4 candidates.
+ *
+ * Results (MAX_RESULTS per viewer) are cached for recommendations.cache-ttl-ms
+ * and dropped when the viewer follows or unfollows someone.
+ */
+@Service
+public class RecommendationService {
+
+    static final int MAX_RESULTS = 50;
+    static final int SPLIT_THRESHOLD = 32;
+    private static final double ACTIVITY_DECAY_DAYS = 7;
+    private static final int ACTIVITY_WINDOW_DAYS = 30;
+
+    private final SocialGraphService socialGraphService;
+    private final PostRepository postRepository;
+    private final long cacheTtlMillis;
+
+    private final Map<Long, CachedRecommendations> cache = new ConcurrentHashMap<>();
+
+    public RecommendationService(SocialGraphService socialGraphService,
+                                 PostRepository postRepository,
+                                 @Value("${recommendations.cache-ttl-ms:600000}") long cacheTtlMillis) {
+        this.socialGraphService = socialGraphService;
+        this.postRepository = postRepository;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    /**
+     * Best candidates for the viewer, highest score first
+     */
+    public List<Recommendation> getRecommendations(Long viewerId, int limit) {
+        long now = System.currentTimeMillis();
+        CachedRecommendations cached = cache.get(viewerId);
+        if (cached == null || cached.expiresAt < now) {
+            cached = new CachedRecommendations(compute(viewerId), now + cacheTtlMillis);
+            cache.put(viewerId, cached);
+        }
+        List<Recommendation> all = cached.recommendations;
+        return all.subList(0, Math.min(Math.max(limit, 0), all.size()));
+    }
+
+    /**
+     * Drop the cached recommendations of a viewer (their following set changed)
+     */
+    public void invalidate(Long viewerId) {
+        cache.remove(viewerId);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.cache-ttl-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt < now);
+    }
+
+    private List<Recommendation> compute(long viewerId) {
+        long[] following = socialGraphService.followingIds(viewerId);
+        LongIntMap mutuals = countSecondDegree(viewerId, following, socialGraphService::followingIds);
+        if (mutuals.size() == 0) {
+            return List.of();
+        }
+
+        // Only the strongest candidates are worth an activity lookup
+        List<long[]> top = mutuals.entries();
+        top.sort(Comparator.<long[]>comparingLong(entry -> -entry[1]).thenComparingLong(entry -> entry[0]));
+        List<long[]> shortlist = top.subList(0, Math.min(top.size(), MAX_RESULTS * 4));
+
+        List<Long> ids = new ArrayList<>(shortlist.size());
+        shortlist.forEach(entry -> ids.add(entry[0]));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LocalDateTime> lastPosts = new HashMap<>();
+        for (Object[] row : postRepository.findLatestPostTimes(ids, now.minusDays(ACTIVITY_WINDOW_DAYS))) {
+            lastPosts.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+
+        List<Recommendation> scored = new ArrayList<>(shortlist.size());
+        for (long[] entry : shortlist) {
+            LocalDateTime lastPost = lastPosts.get(entry[0]);
+            double activity = lastPost == null
+                    ? 0
+                    : Math.exp(-Duration.between(lastPost, now).toHours() / 24.0 / ACTIVITY_DECAY_DAYS);
+            scored.add(new Recommendation(entry[0], (int) entry[1], entry[1] * (1 + activity)));
+        }
+        scored.sort(Comparator.comparingDouble((Recommendation r) -> -r.getScore())
+                .thenComparingLong(Recommendation::getUserId));
+        return List.copyOf(scored.subList(0, Math.min(scored.size(), MAX_RESULTS)));
+    }
+
+    /**
+     * Count, for every account followed by someone in following, how many of them follow it
+     * The viewer and the accounts in following are left out
+     */
+    static LongIntMap countSecondDegree(long viewerId, long[] following, LongFunction<long[]> followingOf) {
+        if (following.length == 0) {
+            return new LongIntMap();
+        }
+        LongIntMap counts = ForkJoinPool.commonPool().invoke(new CountTask(following, 0, following.length, followingOf));
+        counts.remove(viewerId);
+        for (long followed : following) {
+            counts.remove(followed);
+        }
+        return counts;
+    }
+
+    public static final class Recommendation {
+
+        private final long userId;
+        private final int mutualCount;
+        private final double score;
+
+        Recommendation(long userId, int mutualCount, double score) {
+            this.userId = userId;
+            this.mutualCount = mutualCount;
+            this.score = score;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public int getMutualCount() {
+            return mutualCount;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final class CachedRecommendations {
+
+        final List<Recommendation> recommendations;
+        final long expiresAt;
+
+        CachedRecommendations(List<Recommendation> recommendations, long expiresAt) {
+            this.recommendations = recommendations;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<LongIntMap> {
+
+        private final long[] following;
+        private final int from;
+        private final int to;
+        private final LongFunction<long[]> followingOf;
+
+        CountTask(long[] following, int from, int to, LongFunction<long[]> followingOf) {
+            this.following = following;
+            this.from = from;
+            this.to = to;
+            this.followingOf = followingOf;
+        }
+
+        @Override
+        protected LongIntMap compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                LongIntMap counts = new LongIntMap();
+                for (int i = from; i < to; i++) {
+                    for (long candidate : followingOf.apply(following[i])) {
+                        counts.increment(candidate);
+                    }
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(following, from, middle, followingOf);
+            left.fork();
+            LongIntMap right = new CountTask(following, middle, to, followingOf).compute();
+            LongIntMap merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
+    /**
+     * Open-addressing long -> int counter (no boxing); ids are positive, 0 marks an empty slot
+     */
+    static final class LongIntMap {
+
+        private long[] keys = new long[64];
+        private int[] values = new int[64];
+        private int size;
+
+        void increment(long key) {
+            add(key, 1);
+        }
+
+        void add(long key, int delta) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(key, keys);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += delta;
+        }
+
+        int get(long key) {
+            int slot = slot(key, keys);
+            return keys[slot] == key ? values[slot] : 0;
+        }
+
+        void remove(long key) {
+            int slot = slot(key, keys);
+            if (keys[slot] != key) {
+                return;
+            }
+            // Re-insert the rest of the probe run so later lookups still find their keys
+            keys[slot] = 0;
+            values[slot] = 0;
+            size--;
+            int mask = keys.length - 1;
+            for (int next = (slot + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                long movedKey = keys[next];
+                int movedValue = values[next];
+                keys[next] = 0;
+                values[next] = 0;
+                size--;
+                add(movedKey, movedValue);
+            }
+        }
+
+        void addAll(LongIntMap other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != 0) {
+                    add(other.keys[i], other.values[i]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * {key, count} pairs in no particular order
+         */
+        List<long[]> entries() {
+            List<long[]> entries = new ArrayList<>(size);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    entries.add(new long[] {keys[i], values[i]});
+                }
+            }
+            return entries;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, long[] keys) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
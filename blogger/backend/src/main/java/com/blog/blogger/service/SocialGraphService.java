@@ -0,0 +1,249 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.repository.SubscriptionRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.SortedLongSet;
+
+/**
+ * SocialGraphService - In-memory index of who follows whom
+ *
+ * Every user with follows has two SortedLongSet adjacency lists: the ids they
+ * follow and the ids following them. Membership is a binary search, counts and
+ * id lists are array reads, and nothing touches the database.
+ *
+ * Memory: each follow is stored once on each side, 8 bytes per side, so 16 bytes
+ * per edge plus up to 50% spare array capacity (24 bytes worst case), and about
+ * 100 bytes of map entry and array header per user with at least one follow.
+ * One million follows take roughly 16-24 MB.
+ *
+ * The graph is loaded on startup in one pass over subscriptions (keyset chunks
+ * of graph.load-batch-size rows). Until then every query falls back to the database.
+ * Follows and unfollows committed during the load are queued and replayed on
+ * top of the loaded graph, so none are lost. If the load fails the queue is
+ * dropped and queries stay on the database.
+ */
+@Service
+public class SocialGraphService {
+
+    private static final Logger log = LoggerFactory.getLogger(SocialGraphService.class);
+    private static final long[] EMPTY = new long[0];
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int loadBatchSize;
+
+    private volatile Map<Long, SortedLongSet> following = new ConcurrentHashMap<>();
+    private volatile Map<Long, SortedLongSet> followers = new ConcurrentHashMap<>();
+
+    // Changes committed while the graph is loading: {followerId, followingId, 1 = follow / 0 = unfollow}
+    private final Object lock = new Object();
+    private List<long[]> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    public SocialGraphService(SubscriptionRepository subscriptionRepository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${graph.load-batch-size:10000}") int loadBatchSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    public boolean isFollowing(long followerId, long followingId) {
+        if (!ready) {
+            return subscriptionRepository.findFollowingIdsByFollowerId(followerId).contains(followingId);
+        }
+        SortedLongSet set = following.get(followerId);
+        return set != null && set.contains(followingId);
+    }
+
+    /**
+     * Ids followed by the user, ascending
+     */
+    public long[] followingIds(long userId) {
+        if (!ready) {
+            return toArray(subscriptionRepository.findFollowingIdsByFollowerId(userId));
+        }
+        SortedLongSet set = following.get(userId);
+        return set == null ? EMPTY : set.toArray();
+    }
+
+    /**
+     * Ids following the user, ascending
+     */
+    public long[] followerIds(long userId) {
+        if (!ready) {
+            return toArray(subscriptionRepository.findFollowerIdsByFollowingId(userId));
+        }
+        SortedLongSet set = followers.get(userId);
+        return set == null ? EMPTY : set.toArray();
+    }
+
+    public int followingCount(long userId) {
+        return ready ? size(following.get(userId)) : followingIds(userId).length;
+    }
+
+    public int followerCount(long userId) {
+        return ready ? size(followers.get(userId)) : followerIds(userId).length;
+    }
+
+    public void onFollow(Long followerId, Long followingId) {
+        AfterCommit.run(() -> apply(followerId, followingId, true));
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        AfterCommit.run(() -> apply(followerId, followingId, false));
+    }
+
+    /**
+     * Drop every edge of a user (account deleted)
+     */
+    public void removeUser(Long userId) {
+        for (long followingId : followingIds(userId)) {
+            apply(userId, followingId, false);
+        }
+        for (long followerId : followerIds(userId)) {
+            apply(followerId, userId, false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (lock) {
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+        }
+        try {
+            Map<Long, LongBuffer> followingBuffers = new HashMap<>();
+            Map<Long, LongBuffer> followerBuffers = new HashMap<>();
+            long edges = 0;
+            long lastId = 0;
+            List<long[]> rows;
+            do {
+                rows = jdbcTemplate.query(
+                        "SELECT id, follower_id, following_id FROM subscriptions WHERE id > ? ORDER BY id LIMIT ?",
+                        (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)},
+                        lastId, loadBatchSize);
+                for (long[] row : rows) {
+                    followingBuffers.computeIfAbsent(row[1], id -> new LongBuffer()).add(row[2]);
+                    followerBuffers.computeIfAbsent(row[2], id -> new LongBuffer()).add(row[1]);
+                    lastId = row[0];
+                }
+                edges += rows.size();
+            } while (rows.size() == loadBatchSize);
+
+            Map<Long, SortedLongSet> loadedFollowing = toSets(followingBuffers);
+            Map<Long, SortedLongSet> loadedFollowers = toSets(followerBuffers);
+
+            synchronized (lock) {
+                following = loadedFollowing;
+                followers = loadedFollowers;
+                for (long[] change : pending) {
+                    applyNow(change[0], change[1], change[2] == 1);
+                }
+                pending = null;
+                ready = true;
+            }
+            log.info("Social graph loaded: {} follows", edges);
+        } catch (RuntimeException e) {
+            // Stop queueing: queries keep using the database, a later load starts from it again
+            synchronized (lock) {
+                pending = null;
+            }
+            log.error("Social graph load failed, falling back to the database", e);
+        }
+    }
+
+    private void apply(long followerId, long followingId, boolean follow) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(new long[] {followerId, followingId, follow ? 1 : 0});
+                return;
+            }
+            if (!ready) {
+                // Load failed: nothing in memory to keep up to date
+                return;
+            }
+        }
+        applyNow(followerId, followingId, follow);
+    }
+
+    private void applyNow(long followerId, long followingId, boolean follow) {
+        if (follow) {
+            add(following, followerId, followingId);
+            add(followers, followingId, followerId);
+        } else {
+            remove(following, followerId, followingId);
+            remove(followers, followingId, followerId);
+        }
+    }
+
+    // Inside compute(), so a concurrent remove() can never drop the set this value goes into
+    private static void add(Map<Long, SortedLongSet> index, long key, long value) {
+        index.compute(key, (id, set) -> {
+            SortedLongSet target = set == null ? new SortedLongSet() : set;
+            target.add(value);
+            return target;
+        });
+    }
+
+    private static void remove(Map<Long, SortedLongSet> index, long key, long value) {
+        index.computeIfPresent(key, (id, set) -> {
+            set.remove(value);
+            return set.size() == 0 ? null : set;
+        });
+    }
+
+    private static Map<Long, SortedLongSet> toSets(Map<Long, LongBuffer> buffers) {
+        Map<Long, SortedLongSet> sets = new ConcurrentHashMap<>(Math.max(16, buffers.size() * 4 / 3));
+        buffers.forEach((id, buffer) -> sets.put(id, SortedLongSet.of(buffer.toArray())));
+        return sets;
+    }
+
+    private static int size(SortedLongSet set) {
+        return set == null ? 0 : set.size();
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /**
+     * Append-only primitive list used while loading (sorted once at the end)
+     */
+    private static final class LongBuffer {
+
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.models.Role;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repository.CommentRepository;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+/**
+ * StatsCounterService - Admin dashboard counters kept up to date in memory
+ *
+ * The user, post and comment services report every change (after commit), so
+ * GET /auth/admin/stats only reads a few atomic counters. Daily buckets hold the
+ * number of users, posts and comments created per day for the last DAYS_KEPT days.
+ *
+ * Counters are reset from COUNT queries on startup and on a fixed interval, which
+ * also corrects any drift (changes made outside the services, failed purges...).
+ */
+@Service
+public class StatsCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsCounterService.class);
+    static final int DAYS_KEPT = 7;
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong bannedUsers = new AtomicLong();
+    private final AtomicLong adminUsers = new AtomicLong();
+    private final AtomicLong posts = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private final Map<LocalDate, DayCounters> days = new ConcurrentHashMap<>();
+
+    public StatsCounterService(UserRepository userRepository, PostRepository postRepository,
+                               CommentRepository commentRepository) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    public void onUserCreated(User user) {
+        boolean admin = user.getRole() == Role.ADMIN;
+        LocalDateTime createdAt = user.getCreatedAt();
+        AfterCommit.run(() -> {
+            users.incrementAndGet();
+            if (admin) {
+                adminUsers.incrementAndGet();
+            }
+            day(createdAt).users.incrementAndGet();
+        });
+    }
+
+    public void onUserDeleted(boolean banned, boolean admin, LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            users.decrementAndGet();
+            if (banned) {
+                bannedUsers.decrementAndGet();
+            }
+            if (admin) {
+                adminUsers.decrementAndGet();
+            }
+            dayIfKept(createdAt, counters -> counters.users.decrementAndGet());
+        });
+    }
+
+    /**
+     * A user was banned (delta 1) or unbanned (delta -1)
+     */
+    public void onBanChanged(int delta) {
+        AfterCommit.run(() -> bannedUsers.addAndGet(delta));
+    }
+
+    public void onRoleChanged(Role oldRole, Role newRole) {
+        if (oldRole == newRole) {
+            return;
+        }
+        AfterCommit.run(() -> adminUsers.addAndGet(newRole == Role.ADMIN ? 1 : -1));
+    }
+
+    public void onPostCreated(LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            posts.incrementAndGet();
+            day(createdAt).posts.incrementAndGet();
+        });
+    }
+
+    public void onPostDeleted(LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            posts.decrementAndGet();
+            dayIfKept(createdAt, counters -> counters.posts.decrementAndGet());
+        });
+    }
+
+    public void onCommentCreated(LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            comments.incrementAndGet();
+            day(createdAt).comments.incrementAndGet();
+        });
+    }
+
+    public void onCommentDeleted(LocalDateTime createdAt) {
+        AfterCommit.run(() -> {
+            comments.decrementAndGet();
+            dayIfKept(createdAt, counters -> counters.comments.decrementAndGet());
+        });
+    }
+
+    public AdminStatsDTO getStats() {
+        LocalDate today = LocalDate.now();
+        DayCounters todayCounters = days.get(today);
+        long newUsersThisWeek = 0;
+        for (int i = 0; i < DAYS_KEPT; i++) {
+            DayCounters counters = days.get(today.minusDays(i));
+            if (counters != null) {
+                newUsersThisWeek += counters.users.get();
+            }
+        }
+
+        long totalUsers = users.get();
+        long banned = bannedUsers.get();
+        return AdminStatsDTO.builder()
+                .totalUsers(totalUsers)
+                .totalPosts(posts.get())
+                .totalComments(comments.get())
+                .activeUsers(totalUsers - banned)
+                .bannedUsers(banned)
+                .adminUsers(adminUsers.get())
+                .postsToday(todayCounters == null ? 0L : todayCounters.posts.get())
+                .commentsToday(todayCounters == null ? 0L : todayCounters.comments.get())
+                .newUsersThisWeek(newUsersThisWeek)
+                .build();
+    }
+
+    /**
+     * Reset every counter from the database (a handful of indexed COUNT queries)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:600000}", initialDelayString = "${stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        users.set(userRepository.count());
+        bannedUsers.set(userRepository.countByIsBannedTrue());
+        adminUsers.set(userRepository.countByRole(Role.ADMIN));
+        posts.set(postRepository.count());
+        comments.set(commentRepository.count());
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < DAYS_KEPT; i++) {
+            LocalDate date = today.minusDays(i);
+            LocalDateTime start = date.atStartOfDay();
+            LocalDateTime end = start.plusDays(1);
+
+            DayCounters counters = day(start);
+            counters.users.set(userRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end));
+            counters.posts.set(postRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end));
+            counters.comments.set(commentRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end));
+        }
+        days.keySet().removeIf(date -> date.isBefore(today.minusDays(DAYS_KEPT - 1)));
+        log.debug("Admin stats reconciled: {} users, {} posts, {} comments", users.get(), posts.get(), comments.get());
+    }
+
+    private DayCounters day(LocalDateTime time) {
+        LocalDate date = time == null ? LocalDate.now() : time.toLocalDate();
+        return days.computeIfAbsent(date, d -> new DayCounters());
+    }
+
+    private void dayIfKept(LocalDateTime time, Consumer<DayCounters> update) {
+        if (time != null) {
+            DayCounters counters = days.get(time.toLocalDate());
+            if (counters != null) {
+                update.accept(counters);
+            }
+        }
+    }
+
+    static class DayCounters {
+        final AtomicLong users = new AtomicLong();
+        final AtomicLong posts = new AtomicLong();
+        final AtomicLong comments = new AtomicLong();
+    }
+}
@@ -0,0 +1,208 @@
+package com.blog.blogger.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.blog.blogger.dto.TimeSeriesPointDTO;
+import com.blog.blogger.models.StatsRollup;
+import com.blog.blogger.models.StatsRollup.Granularity;
+import com.blog.blogger.models.StatsRollup.Metric;
+import com.blog.blogger.repository.StatsRollupRepository;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * StatsRollupService - Hourly and daily rollups behind the admin analytics charts
+ *
+ * A scheduled aggregator counts the new rows of each metric per hour with one
+ * GROUP BY over an indexed timestamp range, writes them as HOUR rollups and sums
+ * the touched days into DAY rollups. A bucket is always replaced as a whole
+ * (delete + insert in one transaction), so running the aggregator twice over the
+ * same range gives the same rows.
+ *
+ * Each run recomputes from LATE_HOURS before the last completed hour, which
+ * picks up the current partial hour and rows committed late. The first run
+ * backfills stats.rollup-backfill-days, CHUNK_DAYS per transaction.
+ *
+ * Rollups keep history: rows later deleted from the base tables stay counted
+ * in the hours they were created.
+ */
+@Service
+public class StatsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsRollupService.class);
+
+    static final int MAX_POINTS = 2500;
+    private static final int LATE_HOURS = 1;
+    private static final int CHUNK_DAYS = 7;
+
+    // Table and timestamp column counted by each metric
+    private static final Map<Metric, String[]> SOURCES = Map.of(
+            Metric.REGISTRATIONS, new String[] {"users", "created_at"},
+            Metric.POSTS, new String[] {"posts", "created_at"},
+            Metric.COMMENTS, new String[] {"comments", "created_at"},
+            Metric.LIKES, new String[] {"post_likes", "liked_at"},
+            Metric.REPORTS, new String[] {"reports", "created_at"},
+            Metric.BANS, new String[] {"users", "banned_at"});
+
+    private final StatsRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillDays;
+
+    // Start of the last hour covered by a completed run
+    private volatile LocalDateTime watermark;
+
+    public StatsRollupService(StatsRollupRepository rollupRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${stats.rollup-backfill-days:90}") int backfillDays) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillDays = backfillDays;
+    }
+
+    /**
+     * Points of one metric for [from, to), one per hour or day, missing buckets as 0
+     */
+    public List<TimeSeriesPointDTO> getSeries(Metric metric, Granularity granularity,
+                                              LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = truncate(from, granularity);
+        if (!to.isAfter(start)) {
+            throw new ValidationException("'to' must be after 'from'");
+        }
+        ChronoUnit unit = unit(granularity);
+        if (unit.between(start, to) >= MAX_POINTS) {
+            throw new ValidationException("Range too large: at most " + MAX_POINTS + " points per series");
+        }
+
+        Map<LocalDateTime, Long> totals = new HashMap<>();
+        for (StatsRollup rollup : rollupRepository
+                .findByMetricAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        metric, granularity, start, to)) {
+            totals.put(rollup.getBucketStart(), rollup.getTotal());
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(to); bucket = bucket.plus(1, unit)) {
+            points.add(new TimeSeriesPointDTO(bucket, totals.getOrDefault(bucket, 0L)));
+        }
+        return points;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.rollup-interval-ms:300000}", initialDelay = 10000)
+    public void aggregate() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = currentHour.plusHours(1);
+        LocalDateTime start = (watermark != null ? watermark : lastRolledUpHour(currentHour)).minusHours(LATE_HOURS);
+
+        for (LocalDateTime chunkStart = start; chunkStart.isBefore(end); ) {
+            LocalDateTime chunkEnd = chunkStart.plusDays(CHUNK_DAYS);
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+            for (Metric metric : Metric.values()) {
+                rollUp(metric, chunkStart, chunkEnd);
+            }
+            chunkStart = chunkEnd;
+        }
+
+        if (watermark == null) {
+            log.info("Stats rollups computed from {}", start);
+        }
+        watermark = currentHour;
+    }
+
+    /**
+     * Recompute the HOUR rollups of [from, to) and the DAY rollups of the days they fall in
+     */
+    void rollUp(Metric metric, LocalDateTime from, LocalDateTime to) {
+        String[] source = SOURCES.get(metric);
+        String column = source[1];
+        String sql = "SELECT YEAR(" + column + "), MONTH(" + column + "), DAY(" + column + "), HOUR(" + column + "), COUNT(*)"
+                + " FROM " + source[0] + " WHERE " + column + " >= ? AND " + column + " < ?"
+                + " GROUP BY YEAR(" + column + "), MONTH(" + column + "), DAY(" + column + "), HOUR(" + column + ")";
+
+        Map<LocalDateTime, Long> hours = new TreeMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            hours.put(LocalDateTime.of(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), 0), rs.getLong(5));
+        }, from, to);
+
+        LocalDateTime dayFrom = truncate(from, Granularity.DAY);
+        LocalDateTime dayTo = truncate(to, Granularity.DAY);
+        if (dayTo.isBefore(to)) {
+            dayTo = dayTo.plusDays(1);
+        }
+        LocalDateTime daysEnd = dayTo;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            replace(metric, Granularity.HOUR, from, to, hours);
+
+            Map<LocalDateTime, Long> days = new TreeMap<>();
+            jdbcTemplate.query(
+                    "SELECT bucket_start, total FROM stats_rollups"
+                            + " WHERE metric = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?",
+                    rs -> {
+                        LocalDateTime day = truncate(rs.getTimestamp(1).toLocalDateTime(), Granularity.DAY);
+                        days.merge(day, rs.getLong(2), Long::sum);
+                    },
+                    metric.name(), Granularity.HOUR.name(), dayFrom, daysEnd);
+            replace(metric, Granularity.DAY, dayFrom, daysEnd, days);
+        });
+    }
+
+    private void replace(Metric metric, Granularity granularity, LocalDateTime from, LocalDateTime to,
+                         Map<LocalDateTime, Long> totals) {
+        jdbcTemplate.update(
+                "DELETE FROM stats_rollups WHERE metric = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?",
+                metric.name(), granularity.name(), from, to);
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((bucket, total) -> {
+            if (total > 0) {
+                rows.add(new Object[] {metric.name(), granularity.name(), Timestamp.valueOf(bucket), total});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO stats_rollups (metric, granularity, bucket_start, total) VALUES (?, ?, ?, ?)", rows);
+        }
+    }
+
+    /**
+     * Where to resume after a restart: the newest HOUR rollup, bounded by the backfill window
+     */
+    private LocalDateTime lastRolledUpHour(LocalDateTime currentHour) {
+        LocalDateTime backfillStart = truncate(currentHour.minusDays(backfillDays), Granularity.DAY);
+        Timestamp latest = jdbcTemplate.queryForObject(
+                "SELECT MAX(bucket_start) FROM stats_rollups WHERE granularity = ?",
+                Timestamp.class, Granularity.HOUR.name());
+        if (latest == null || latest.toLocalDateTime().isBefore(backfillStart)) {
+            return backfillStart;
+        }
+        return latest.toLocalDateTime();
+    }
+
+    private static ChronoUnit unit(Granularity granularity) {
+        return granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+    }
+
+    static LocalDateTime truncate(LocalDateTime time, Granularity granularity) {
+        return time.truncatedTo(unit(granularity));
+    }
+}
@@ -8,6 +8,8 @@ import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,15 @@ public class SubscriptionService {
     @Autowired
     private com.blog.blogger.services.NotificationService notificationService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
     @Transactional
     public Subscription followUser(String currentUsername, Long userIdToFollow) {
         User follower = userRepository.findByUsername(currentUsername)
@@ -49,6 +60,11 @@ public class SubscriptionService {
                 .build();
 
         Subscription savedSubscription = subscriptionRepository.save(subscription);
+        userRepository.addFollowingCount(follower.getId(), 1);
+        userRepository.addFollowersCount(following.getId(), 1);
+        socialGraphService.onFollow(follower.getId(), following.getId());
+        recommendationService.invalidate(follower.getId());
+        timelineService.invalidate(follower.getId());
 
         
         notificationService.notifyUserAboutNewFollower(following, follower);
@@ -65,17 +81,27 @@ public class SubscriptionService {
         User following = userRepository.findById(userIdToUnfollow)
                 .orElseThrow(() -> new RuntimeException("User to unfollow not found"));
 
-        subscriptionRepository.deleteByFollowerAndFollowing(follower, following);
+        if (subscriptionRepository.deleteByFollowerAndFollowing(follower, following) > 0) {
+            userRepository.addFollowingCount(follower.getId(), -1);
+            userRepository.addFollowersCount(following.getId(), -1);
+            socialGraphService.onUnfollow(follower.getId(), following.getId());
+            recommendationService.invalidate(follower.getId());
+        }
+        timelineService.removeAuthor(follower.getId(), following.getId());
     }
 
     public boolean isFollowing(String currentUsername, Long userId) {
         User follower = userRepository.findByUsername(currentUsername)
                 .orElseThrow(() -> new RuntimeException("Current user not found"));
 
-        User following = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return isFollowing(follower.getId(), userId);
+    }
 
-        return subscriptionRepository.existsByFollowerAndFollowing(follower, following);
+    /**
+     * Answered from the in-memory social graph
+     */
+    public boolean isFollowing(Long followerId, Long userId) {
+        return socialGraphService.isFollowing(followerId, userId);
     }
 
    
@@ -124,29 +150,46 @@ public class SubscriptionService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("followersCount", subscriptionRepository.countByFollowing(user));
-        stats.put("followingCount", subscriptionRepository.countByFollower(user));
+        stats.put("followersCount", user.getFollowersCount());
+        stats.put("followingCount", user.getFollowingCount());
 
         return stats;
     }
 
-    
+    /**
+     * Directory entries for a list of users: profile fields, follower/following counts
+     * and whether the viewer follows them
+     * Counts come from the users row and isFollowing from the social graph, no query per user
+     */
+    public List<Map<String, Object>> toDirectoryEntries(List<User> users, Long viewerId) {
+        List<Map<String, Object>> entries = new ArrayList<>(users.size());
+        for (User user : users) {
+            Map<String, Object> userMap = new HashMap<>();
+            userMap.put("id", user.getId());
+            userMap.put("username", user.getUsername());
+            userMap.put("email", user.getEmail());
+            userMap.put("role", user.getRole());
+            userMap.put("createdAt", user.getCreatedAt());
+            userMap.put("followersCount", user.getFollowersCount());
+            userMap.put("followingCount", user.getFollowingCount());
+            userMap.put("isFollowing", viewerId != null && socialGraphService.isFollowing(viewerId, user.getId()));
+            entries.add(userMap);
+        }
+        return entries;
+    }
+
+   
     public List<Long> getFollowingIds(String currentUsername) {
         User user = userRepository.findByUsername(currentUsername)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<Subscription> subscriptions = subscriptionRepository.findByFollower(user);
-
-        return subscriptions.stream()
-                .map(sub -> sub.getFollowing().getId())
-                .collect(Collectors.toList());
+        return Arrays.stream(socialGraphService.followingIds(user.getId())).boxed().collect(Collectors.toList());
     }
 
    
     public List<User> getFollowers(User user) {
-        List<Subscription> subscriptions = subscriptionRepository.findByFollowing(user);
-        return subscriptions.stream()
-                .map(Subscription::getFollower)
+        List<Long> followerIds = Arrays.stream(socialGraphService.followerIds(user.getId())).boxed()
                 .collect(Collectors.toList());
+        return followerIds.isEmpty() ? List.of() : userRepository.findAllById(followerIds);
     }
 }
@@ -0,0 +1,193 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.models.PostTagEntry;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.repository.PostTagEntryRepository;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.KeysetCursor;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * TagService - Tag normalization, tag pages and the post_tag_index table
+ *
+ * Every visible post has one post_tag_index row per tag, kept in sync by the
+ * post write paths, so GET /auth/posts/tags/{tag} is a keyset range scan on
+ * (tag, created_at, post_id). Tag changes are also fed to TrendingTagService.
+ */
+@Service
+public class TagService {
+
+    private static final Logger log = LoggerFactory.getLogger(TagService.class);
+
+    public static final int MAX_TAGS = 10;
+    public static final int MAX_TAG_LENGTH = 50;
+
+    private final PostTagEntryRepository postTagEntryRepository;
+    private final PostRepository postRepository;
+    private final TrendingTagService trendingTagService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagService(PostTagEntryRepository postTagEntryRepository,
+                      PostRepository postRepository,
+                      TrendingTagService trendingTagService,
+                      JdbcTemplate jdbcTemplate) {
+        this.postTagEntryRepository = postTagEntryRepository;
+        this.postRepository = postRepository;
+        this.trendingTagService = trendingTagService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Trim, lowercase, drop a leading '#', blanks and duplicates
+     */
+    public static List<String> normalize(List<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String value = normalizeTag(tag);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (value.length() > MAX_TAG_LENGTH) {
+                throw new ValidationException("Tag must not exceed " + MAX_TAG_LENGTH + " characters");
+            }
+            normalized.add(value);
+        }
+        if (normalized.size() > MAX_TAGS) {
+            throw new ValidationException("A post can have at most " + MAX_TAGS + " tags");
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    public static String normalizeTag(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String value = tag.trim().toLowerCase(Locale.ROOT);
+        while (value.startsWith("#")) {
+            value = value.substring(1).trim();
+        }
+        return value;
+    }
+
+    /**
+     * Make the post's index rows match its current tags (post created, edited or unhidden)
+     */
+    public void syncPost(Post post) {
+        List<PostTagEntry> existing = postTagEntryRepository.findByPostId(post.getId());
+        List<String> oldTags = existing.stream().map(PostTagEntry::getTag).collect(Collectors.toList());
+        List<String> newTags = post.getTags() == null ? List.of() : new ArrayList<>(post.getTags());
+        if (oldTags.equals(newTags)) {
+            return;
+        }
+
+        postTagEntryRepository.deleteByPostId(post.getId());
+        postTagEntryRepository.saveAll(newTags.stream()
+                .map(tag -> PostTagEntry.builder()
+                        .tag(tag)
+                        .postId(post.getId())
+                        .createdAt(post.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList()));
+
+        LocalDateTime createdAt = post.getCreatedAt();
+        AfterCommit.run(() -> {
+            trendingTagService.record(oldTags, createdAt, -1);
+            trendingTagService.record(newTags, createdAt, 1);
+        });
+    }
+
+    /**
+     * Drop the post's index rows (post hidden or deleted)
+     */
+    public void removePost(Post post) {
+        removePost(post.getId(), post.getCreatedAt());
+    }
+
+    public void removePost(Long postId, LocalDateTime createdAt) {
+        List<String> oldTags = postTagEntryRepository.findByPostId(postId).stream()
+                .map(PostTagEntry::getTag)
+                .collect(Collectors.toList());
+        if (oldTags.isEmpty()) {
+            return;
+        }
+        postTagEntryRepository.deleteByPostId(postId);
+
+        AfterCommit.run(() -> trendingTagService.record(oldTags, createdAt, -1));
+    }
+
+    /**
+     * Visible posts with a tag, newest first
+     *
+     * @param cursor nextCursor of the previous page, or null/blank for the first page
+     */
+    public CursorPage<Post> getPostsByTag(String tag, String cursor, int size) {
+        String normalized = normalizeTag(tag);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<PostTagEntry> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postTagEntryRepository.findFirstPage(normalized, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = postTagEntryRepository.findAfter(normalized, position.getCreatedAt(), position.getId(), limit);
+        }
+        CursorPage<PostTagEntry> entries = CursorPage.of(rows, size,
+                entry -> new KeysetCursor(entry.getCreatedAt(), entry.getPostId()));
+
+        List<Long> postIds = entries.getItems().stream().map(PostTagEntry::getPostId).collect(Collectors.toList());
+        Map<Long, Post> postsById = postIds.isEmpty() ? Map.of() : postRepository.findByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> posts = postIds.stream()
+                .map(postsById::get)
+                .filter(post -> post != null && !Boolean.TRUE.equals(post.getIsHidden()))
+                .collect(Collectors.toList());
+        return new CursorPage<>(posts, entries.getNextCursor(), entries.isHasMore());
+    }
+
+    /**
+     * Fill post_tag_index from post_tags the first time it exists, then warm the trending window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (postTagEntryRepository.count() == 0) {
+            int rows = jdbcTemplate.update(
+                    "INSERT INTO post_tag_index (tag, post_id, created_at) "
+                    + "SELECT DISTINCT LOWER(TRIM(pt.tag)), p.id, p.created_at "
+                    + "FROM post_tags pt JOIN posts p ON p.id = pt.post_id "
+                    + "WHERE (p.is_hidden = false OR p.is_hidden IS NULL) AND p.deleted_at IS NULL AND TRIM(pt.tag) <> '' "
+                    + "AND p.created_at IS NOT NULL AND CHAR_LENGTH(TRIM(pt.tag)) <= " + MAX_TAG_LENGTH);
+            if (rows > 0) {
+                log.info("post_tag_index backfilled with {} rows", rows);
+            }
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusHours(trendingTagService.getWindowHours());
+        for (Object[] row : postTagEntryRepository.findTagsCreatedSince(since)) {
+            trendingTagService.record(List.of((String) row[0]), (LocalDateTime) row[1], 1);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.blog.blogger.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.models.Post;
+import com.blog.blogger.repository.PostRepository;
+import com.blog.blogger.utils.AfterCommit;
+
+/**
+ * TimelineService - Precomputed home timelines (fan-out on write)
+ *
+ * Every follower keeps a bounded list of post ids from the accounts they follow,
+ * newest first. New posts are pushed into the timelines of the author's followers,
+ * so reading GET /auth/posts/following is a slice of an already sorted array
+ * instead of a sort over every post of every followed account.
+ *
+ * Timelines live in memory and are rebuilt lazily (one bounded query) the first
+ * time a user reads them after a restart or an invalidation.
+ *
+ * Changes made inside a transaction (post created, hidden, deleted, follow,
+ * unfollow) are applied once it commits, so a rollback never leaves a trace here.
+ */
+@Service
+public class TimelineService {
+
+    private final PostRepository postRepository;
+    private final SocialGraphService socialGraphService;
+    private final int capacity;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    public TimelineService(PostRepository postRepository,
+                           SocialGraphService socialGraphService,
+                           @Value("${timeline.capacity:500}") int capacity) {
+        this.postRepository = postRepository;
+        this.socialGraphService = socialGraphService;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get one page (1-based) of post ids from the follower's timeline, newest first
+     */
+    public List<Long> getPage(Long followerId, int page, int size) {
+        // long: a large page times size must not wrap around to a negative offset
+        long offset = (long) Math.max(0, page - 1) * size;
+        if (offset >= capacity) {
+            return List.of();
+        }
+        return getOrBuild(followerId).slice((int) offset, size);
+    }
+
+    /**
+     * Push a newly created post into the timeline of each follower
+     * Timelines that are not loaded are skipped, they will see the post on rebuild
+     */
+    public void fanOut(Post post, long[] followerIds) {
+        long postId = post.getId();
+        long authorId = post.getAuthor().getId();
+        AfterCommit.run(() -> {
+            for (long followerId : followerIds) {
+                Timeline timeline = timelines.get(followerId);
+                if (timeline != null) {
+                    timeline.insert(postId, authorId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a post from every follower timeline (post hidden or deleted)
+     */
+    public void removePost(Long postId, Long authorId) {
+        AfterCommit.run(() -> {
+            for (long followerId : socialGraphService.followerIds(authorId)) {
+                Timeline timeline = timelines.get(followerId);
+                if (timeline != null) {
+                    timeline.remove(postId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Put a post back into the follower timelines (post unhidden)
+     */
+    public void restorePost(Post post) {
+        fanOut(post, socialGraphService.followerIds(post.getAuthor().getId()));
+    }
+
+    /**
+     * Drop every entry of an author from one follower's timeline (unfollow)
+     */
+    public void removeAuthor(Long followerId, Long authorId) {
+        AfterCommit.run(() -> {
+            Timeline timeline = timelines.get(followerId);
+            if (timeline != null) {
+                timeline.removeAuthor(authorId);
+            }
+        });
+    }
+
+    /**
+     * Forget a timeline so it is rebuilt on the next read (follow)
+     */
+    public void invalidate(Long followerId) {
+        AfterCommit.run(() -> timelines.remove(followerId));
+    }
+
+    private Timeline getOrBuild(Long followerId) {
+        Timeline timeline = timelines.get(followerId);
+        if (timeline != null) {
+            return timeline;
+        }
+
+        Timeline built = new Timeline(capacity);
+        long[] followingIds = socialGraphService.followingIds(followerId);
+        if (followingIds.length > 0) {
+            List<Object[]> entries = postRepository.findTimelineEntriesByAuthorIds(
+                    Arrays.stream(followingIds).boxed().collect(Collectors.toList()), PageRequest.of(0, capacity));
+            for (Object[] entry : entries) {
+                built.insert((Long) entry[0], (Long) entry[1]);
+            }
+        }
+
+        Timeline existing = timelines.putIfAbsent(followerId, built);
+        return existing != null ? existing : built;
+    }
+
+    /**
+     * Bounded list of (postId, authorId) pairs kept sorted by post id descending.
+     * Post ids are generated in insertion order, so id order is creation order.
+     */
+    static class Timeline {
+
+        private final long[] postIds;
+        private final long[] authorIds;
+        private int size;
+
+        Timeline(int capacity) {
+            this.postIds = new long[capacity];
+            this.authorIds = new long[capacity];
+        }
+
+        synchronized void insert(long postId, long authorId) {
+            int index = 0;
+            while (index < size && postIds[index] > postId) {
+                index++;
+            }
+            if (index < size && postIds[index] == postId) {
+                return;
+            }
+            if (index >= postIds.length) {
+                return; // older than everything we keep
+            }
+
+            int toMove = Math.min(size, postIds.length - 1) - index;
+            if (toMove > 0) {
+                System.arraycopy(postIds, index, postIds, index + 1, toMove);
+                System.arraycopy(authorIds, index, authorIds, index + 1, toMove);
+            }
+            postIds[index] = postId;
+            authorIds[index] = authorId;
+            size = Math.min(size + 1, postIds.length);
+        }
+
+        synchronized void remove(long postId) {
+            for (int i = 0; i < size; i++) {
+                if (postIds[i] == postId) {
+                    System.arraycopy(postIds, i + 1, postIds, i, size - i - 1);
+                    System.arraycopy(authorIds, i + 1, authorIds, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        synchronized void removeAuthor(long authorId) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (authorIds[i] != authorId) {
+                    postIds[kept] = postIds[i];
+                    authorIds[kept] = authorIds[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        synchronized List<Long> slice(int offset, int limit) {
+            List<Long> result = new ArrayList<>();
+            for (int i = offset; i < size && result.size() < limit; i++) {
+                result.add(postIds[i]);
+            }
+            return result;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
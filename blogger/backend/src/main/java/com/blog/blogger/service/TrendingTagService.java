@@ -0,0 +1,118 @@
+package com.blog.blogger.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.blog.blogger.dto.TagCountDTO;
+
+/**
+ * TrendingTagService - Tags used by the most posts over the last hours
+ *
+ * Counts live in memory in a ring of hourly buckets, updated as posts are
+ * created, hidden, unhidden or deleted. Reading the trending list only sums the
+ * buckets still inside the window, it never runs a GROUP BY over post_tags.
+ * The window is warmed from post_tag_index on startup (see TagService).
+ */
+@Service
+public class TrendingTagService {
+
+    private final int windowHours;
+    private final SlidingWindow window;
+
+    public TrendingTagService(@Value("${tags.trending-window-hours:24}") int windowHours) {
+        this.windowHours = windowHours;
+        this.window = new SlidingWindow(windowHours);
+    }
+
+    public int getWindowHours() {
+        return windowHours;
+    }
+
+    /**
+     * Count the tags of a post created at createdAt (delta -1 to take them back)
+     * Posts older than the window are ignored.
+     */
+    public void record(Collection<String> tags, LocalDateTime createdAt, int delta) {
+        long hour = hourOf(createdAt);
+        for (String tag : tags) {
+            window.add(tag, hour, delta, currentHour());
+        }
+    }
+
+    public List<TagCountDTO> getTrending(int limit) {
+        return window.top(currentHour(), limit);
+    }
+
+    private static long currentHour() {
+        return hourOf(LocalDateTime.now());
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * Ring of per-hour tag counters; bucket i holds the hour h with h % size == i
+     */
+    static class SlidingWindow {
+
+        private final long[] bucketHours;
+        private final Map<String, Integer>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        SlidingWindow(int hours) {
+            this.bucketHours = new long[hours];
+            this.buckets = new Map[hours];
+            for (int i = 0; i < hours; i++) {
+                bucketHours[i] = -1;
+                buckets[i] = new HashMap<>();
+            }
+        }
+
+        synchronized void add(String tag, long hour, int delta, long nowHour) {
+            if (hour > nowHour || hour <= nowHour - bucketHours.length) {
+                return;
+            }
+            int index = (int) Math.floorMod(hour, (long) bucketHours.length);
+            if (bucketHours[index] != hour) {
+                if (bucketHours[index] > hour) {
+                    return; // slot already reused by a newer hour
+                }
+                bucketHours[index] = hour;
+                buckets[index] = new HashMap<>();
+            }
+            Integer count = buckets[index].merge(tag, delta, Integer::sum);
+            if (count != null && count <= 0) {
+                buckets[index].remove(tag);
+            }
+        }
+
+        synchronized List<TagCountDTO> top(long nowHour, int limit) {
+            Map<String, Long> totals = new HashMap<>();
+            for (int i = 0; i < bucketHours.length; i++) {
+                if (bucketHours[i] > nowHour - bucketHours.length && bucketHours[i] <= nowHour) {
+                    buckets[i].forEach((tag, count) -> totals.merge(tag, (long) count, Long::sum));
+                }
+            }
+
+            List<Map.Entry<String, Long>> ranked = new ArrayList<>(totals.entrySet());
+            ranked.sort((a, b) -> {
+                int byCount = Long.compare(b.getValue(), a.getValue());
+                return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+            });
+            return ranked.stream()
+                    .limit(limit)
+                    .map(entry -> new TagCountDTO(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
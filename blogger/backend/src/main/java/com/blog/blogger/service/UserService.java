@@ -5,63 +5,51 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.blog.blogger.dto.ChangePasswordDTO;
+import com.blog.blogger.dto.CursorPage;
 import com.blog.blogger.dto.UpdateProfileDTO;
 import com.blog.blogger.dto.UserProfileDTO;
+import com.blog.blogger.models.AccountDeletionJob;
 import com.blog.blogger.models.Role;
 import com.blog.blogger.models.User;
-import com.blog.blogger.repositories.NotificationRepository;
-import com.blog.blogger.repository.CommentLikeRepository;
-import com.blog.blogger.repository.CommentRepository;
-import com.blog.blogger.repository.PostLikeRepository;
-import com.blog.blogger.repository.PostRepository;
-import com.blog.blogger.repository.ReportRepository;
-import com.blog.blogger.repository.SubscriptionRepository;
 import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.security.SecurityEpochService;
+import com.blog.blogger.utils.KeysetCursor;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
-    private final PostLikeRepository postLikeRepository;
-    private final CommentLikeRepository commentLikeRepository;
-    private final SubscriptionRepository subscriptionRepository;
-    private final NotificationRepository notificationRepository;
-    private final ReportRepository reportRepository;
+    private final AccountDeletionService accountDeletionService;
+    private final StatsCounterService statsCounterService;
+    private final SecurityEpochService securityEpochService;
 
     public UserService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            PostRepository postRepository,
-            CommentRepository commentRepository,
-            PostLikeRepository postLikeRepository,
-            CommentLikeRepository commentLikeRepository,
-            SubscriptionRepository subscriptionRepository,
-            NotificationRepository notificationRepository,
-            ReportRepository reportRepository) { // Fixed - only once!
+            AccountDeletionService accountDeletionService,
+            StatsCounterService statsCounterService,
+            SecurityEpochService securityEpochService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.postRepository = postRepository;
-        this.commentRepository = commentRepository;
-        this.postLikeRepository = postLikeRepository;
-        this.commentLikeRepository = commentLikeRepository;
-        this.subscriptionRepository = subscriptionRepository;
-        this.notificationRepository = notificationRepository;
-        this.reportRepository = reportRepository;
+        this.accountDeletionService = accountDeletionService;
+        this.statsCounterService = statsCounterService;
+        this.securityEpochService = securityEpochService;
     }
   
 
     public User register(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRole(Role.USER);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        statsCounterService.onUserCreated(savedUser);
+        return savedUser;
     }
 
   
@@ -108,6 +96,21 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of the user directory (newest first, without the viewer)
+     */
+    public CursorPage<User> getDirectoryPage(Long viewerId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<User> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userRepository.findDirectoryFirstPage(viewerId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = userRepository.findDirectoryAfter(viewerId, position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rows, size, user -> new KeysetCursor(user.getCreatedAt(), user.getId()));
+    }
+
   
 
     public UserProfileDTO getUserProfile(Long id) {
@@ -168,87 +171,52 @@ public class UserService {
     }
 
     
-    @Transactional
-    public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-
-        notificationRepository.deleteByUser(user);
-
-        List<com.blog.blogger.models.Subscription> asFollower = subscriptionRepository.findByFollower(user);
-        subscriptionRepository.deleteAll(asFollower);
-
-        
-        List<com.blog.blogger.models.Subscription> asFollowing = subscriptionRepository.findByFollowing(user);
-        subscriptionRepository.deleteAll(asFollowing);
-
-      
-        List<com.blog.blogger.models.PostLike> postLikes = postLikeRepository.findAll().stream()
-                .filter(like -> like.getUser().getId().equals(id))
-                .collect(Collectors.toList());
-        postLikeRepository.deleteAll(postLikes);
-
-        
-        List<com.blog.blogger.models.CommentLike> commentLikes = commentLikeRepository.findAll().stream()
-                .filter(like -> like.getUser().getId().equals(id))
-                .collect(Collectors.toList());
-        commentLikeRepository.deleteAll(commentLikes);
-
-        
-        // List<com.blog.blogger.models.Message> sentMessages = messageRepository.findBySenderOrderByCreatedAtDesc(user);
-        // messageRepository.deleteAll(sentMessages);
-
-  
-        // List<com.blog.blogger.models.Message> receivedMessages = messageRepository.findByReceiverOrderByCreatedAtDesc(user);
-        // messageRepository.deleteAll(receivedMessages);
-
-        notificationRepository.deleteByUser(user);
-
-        List<com.blog.blogger.models.Post> posts = postRepository.findByAuthor(user);
-        for (com.blog.blogger.models.Post post : posts) {
-            postLikeRepository.deleteByPost(post);
-
-            List<com.blog.blogger.models.Comment> postComments = commentRepository.findByPost(post);
-            for (com.blog.blogger.models.Comment comment : postComments) {
-                commentLikeRepository.deleteByComment(comment);
-            }
-            commentRepository.deleteAll(postComments);
-            reportRepository.deleteByPost(post);
-        }
-        postRepository.deleteAll(posts);
-
-        reportRepository.deleteByReporter(user);
-
-        List<com.blog.blogger.models.Comment> comments = commentRepository.findAll().stream()
-                .filter(comment -> comment.getAuthor().getId().equals(id))
-                .collect(Collectors.toList());
-        commentRepository.deleteAll(comments);
+    /**
+     * Start deleting an account: the user is banned at once, their data is removed
+     * in the background by AccountDeletionService
+     */
+    public AccountDeletionJob deleteUser(Long id) {
+        return accountDeletionService.requestDeletion(id);
+    }
 
-        
-        userRepository.delete(user);
+    public Optional<AccountDeletionJob> getDeletionJob(Long id) {
+        return accountDeletionService.getLatestJob(id);
     }
 
     public void banUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        boolean wasBanned = Boolean.TRUE.equals(user.getIsBanned());
         user.setIsBanned(true);
         user.setBannedAt(LocalDateTime.now());
         userRepository.save(user);
+        if (!wasBanned) {
+            statsCounterService.onBanChanged(1);
+        }
+        securityEpochService.revokeTokens(id);
     }
 
     public void unbanUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        boolean wasBanned = Boolean.TRUE.equals(user.getIsBanned());
         user.setIsBanned(false);
         user.setBannedAt(null);
         userRepository.save(user);
+        if (wasBanned) {
+            statsCounterService.onBanChanged(-1);
+        }
+        securityEpochService.revokeTokens(id);
     }
 
     public void changeUserRole(Long id, Role newRole) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        Role oldRole = user.getRole();
         user.setRole(newRole);
         userRepository.save(user);
+        statsCounterService.onRoleChanged(oldRole, newRole);
+        securityEpochService.revokeTokens(id);
     }
 
    
@@ -282,6 +250,8 @@ public class UserService {
                 .isBanned(user.getIsBanned())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
+                .followersCount(user.getFollowersCount())
+                .followingCount(user.getFollowingCount())
                 .build();
     }
 }
@@ -0,0 +1,202 @@
+package com.blog.blogger.services;
+
+import com.blog.blogger.models.Notification;
+import com.blog.blogger.models.NotificationFanoutJob;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.repositories.NotificationFanoutJobRepository;
+import com.blog.blogger.utils.BatchDelete;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NotificationFanoutService - Writes NEW_POST notifications in the background
+ *
+ * Creating a post only records a NotificationFanoutJob. A scheduled worker then
+ * reads the author's followers in follower_id order, chunkSize at a time, skipping
+ * banned accounts in the same indexed query (subscriptions by following_id joined
+ * to users by primary key) and followers who muted NEW_POST (in memory), and
+ * writes each chunk with one JDBC batch insert.
+ * The chunk and the job's cursor are committed together, so every follower gets
+ * exactly one notification even across restarts.
+ *
+ * Lag (post created -> last notification written) is tracked for GET /auth/admin/notifications/fanout.
+ */
+@Service
+public class NotificationFanoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanoutService.class);
+
+    private final NotificationFanoutJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCountService unreadCountService;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationPreferenceService notificationPreferenceService;
+    private final int chunkSize;
+    private final int jobsPerRun;
+
+    private final AtomicLong jobsCompleted = new AtomicLong();
+    private final AtomicLong notificationsWritten = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public NotificationFanoutService(NotificationFanoutJobRepository jobRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     UnreadCountService unreadCountService,
+                                     NotificationStreamService notificationStreamService,
+                                     NotificationPreferenceService notificationPreferenceService,
+                                     @Value("${notifications.fanout-chunk-size:1000}") int chunkSize,
+                                     @Value("${notifications.fanout-jobs-per-run:20}") int jobsPerRun) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.unreadCountService = unreadCountService;
+        this.notificationStreamService = notificationStreamService;
+        this.notificationPreferenceService = notificationPreferenceService;
+        this.chunkSize = chunkSize;
+        this.jobsPerRun = jobsPerRun;
+    }
+
+    /**
+     * Queue the follower notifications of a new post (joins the caller's transaction)
+     */
+    public void enqueue(Post post) {
+        jobRepository.save(NotificationFanoutJob.builder()
+                .postId(post.getId())
+                .authorId(post.getAuthor().getId())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.fanout-interval-ms:1000}")
+    public void runPendingJobs() {
+        for (NotificationFanoutJob job : jobRepository.findByFinishedAtIsNullOrderByIdAsc(PageRequest.of(0, jobsPerRun))) {
+            try {
+                run(job);
+            } catch (RuntimeException e) {
+                log.error("Notification fan-out of post {} failed, retrying on the next run", job.getPostId(), e);
+            }
+        }
+    }
+
+    /**
+     * Drop jobs finished more than a day ago
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void deleteFinishedJobs() {
+        BatchDelete.byIds(jdbcTemplate, transactionTemplate, 1000, "notification_fanout_jobs",
+                "finished_at < ?", LocalDateTime.now().minusDays(1));
+    }
+
+    /**
+     * Queue depth and lag numbers for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingJobs", jobRepository.countByFinishedAtIsNull());
+        stats.put("oldestPendingSeconds", jobRepository.findFirstByFinishedAtIsNullOrderByIdAsc()
+                .map(job -> Duration.between(job.getCreatedAt(), LocalDateTime.now()).getSeconds())
+                .orElse(0L));
+        stats.put("jobsCompleted", jobsCompleted.get());
+        stats.put("notificationsWritten", notificationsWritten.get());
+        stats.put("lastLagMillis", lastLagMillis.get());
+        stats.put("maxLagMillis", maxLagMillis.get());
+        return stats;
+    }
+
+    private void run(NotificationFanoutJob job) {
+        List<String> messages = jdbcTemplate.query(
+                "SELECT u.username, p.title FROM posts p JOIN users u ON u.id = p.author_id"
+                        + " WHERE p.id = ? AND p.deleted_at IS NULL",
+                (rs, i) -> rs.getString(1) + " published a new post: " + rs.getString(2),
+                job.getPostId());
+
+        long written = 0;
+        if (!messages.isEmpty()) {
+            written = writeNotifications(job, messages.get(0));
+        }
+        // A post deleted before its fan-out finished gets no more notifications
+
+        if (jdbcTemplate.update("UPDATE notification_fanout_jobs SET finished_at = ? WHERE id = ? AND finished_at IS NULL",
+                LocalDateTime.now(), job.getId()) == 0) {
+            return;
+        }
+        long lag = Duration.between(job.getCreatedAt(), LocalDateTime.now()).toMillis();
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        jobsCompleted.incrementAndGet();
+        log.debug("Fan-out of post {}: {} notifications, {} ms after creation", job.getPostId(), written, lag);
+    }
+
+    private long writeNotifications(NotificationFanoutJob job, String message) {
+        long lastFollowerId = job.getLastFollowerId();
+        long written = 0;
+        List<Long> followerIds;
+        do {
+            followerIds = jdbcTemplate.queryForList(
+                    "SELECT s.follower_id FROM subscriptions s JOIN users u ON u.id = s.follower_id"
+                            + " WHERE s.following_id = ? AND s.follower_id > ? AND (u.is_banned = false OR u.is_banned IS NULL)"
+                            + " ORDER BY s.follower_id LIMIT ?",
+                    Long.class, job.getAuthorId(), lastFollowerId, chunkSize);
+            if (followerIds.isEmpty()) {
+                break;
+            }
+
+            // Followers who muted NEW_POST get no row; the cursor still moves past them
+            List<Long> recipients = notificationPreferenceService.filterUnmuted(
+                    followerIds, Notification.NotificationType.NEW_POST);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(recipients.size());
+            for (Long followerId : recipients) {
+                rows.add(new Object[] {followerId, message, Notification.NotificationType.NEW_POST.name(),
+                        job.getPostId(), job.getAuthorId(), now});
+            }
+            long cursor = followerIds.get(followerIds.size() - 1);
+            long previous = lastFollowerId;
+            Boolean claimed = transactionTemplate.execute(status -> {
+                // Moving the cursor from the value we read claims the chunk; another worker that got
+                // there first leaves nothing to update and this chunk is not written twice
+                int moved = jdbcTemplate.update(
+                        "UPDATE notification_fanout_jobs SET last_follower_id = ?, notifications_written = notifications_written + ?"
+                                + " WHERE id = ? AND last_follower_id = ?", cursor, rows.size(), job.getId(), previous);
+                if (moved == 0) {
+                    return false;
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO notifications (user_id, message, type, related_post_id, related_user_id, is_read, actor_count, created_at)"
+                                    + " VALUES (?, ?, ?, ?, ?, false, 1, ?)", rows);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(claimed)) {
+                throw new IllegalStateException("Fan-out job " + job.getId() + " is being run by another worker");
+            }
+
+            for (Long followerId : recipients) {
+                unreadCountService.add(followerId, 1);
+            }
+            notificationStreamService.publishNewPost(job.getPostId(), recipients);
+            lastFollowerId = cursor;
+            written += rows.size();
+            notificationsWritten.addAndGet(rows.size());
+        } while (followerIds.size() == chunkSize);
+        return written;
+    }
+}
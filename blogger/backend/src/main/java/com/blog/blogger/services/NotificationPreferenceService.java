@@ -0,0 +1,134 @@
+package com.blog.blogger.services;
+
+import com.blog.blogger.models.Notification.NotificationType;
+import com.blog.blogger.repository.UserRepository;
+import com.blog.blogger.utils.AfterCommit;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NotificationPreferenceService - Notification types each user has muted
+ *
+ * Stored as a bitmask on users.muted_notification_types (one bit per
+ * NotificationType ordinal) and cached in memory for every user with at least
+ * one muted type, loaded on startup. Notification writers ask isMuted() before
+ * building anything, so a muted notification costs no row and no insert.
+ * Until the cache is loaded, masks are read from the database.
+ */
+@Service
+public class NotificationPreferenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPreferenceService.class);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Integer> mutedMasks = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public NotificationPreferenceService(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isMuted(Long userId, NotificationType type) {
+        return (mask(userId) & bit(type)) != 0;
+    }
+
+    /**
+     * The ids in userIds that accept notifications of this type
+     */
+    public List<Long> filterUnmuted(List<Long> userIds, NotificationType type) {
+        if (ready && mutedMasks.isEmpty()) {
+            return userIds;
+        }
+        return userIds.stream().filter(userId -> !isMuted(userId, type)).toList();
+    }
+
+    public Set<NotificationType> getMutedTypes(Long userId) {
+        return toTypes(mask(userId));
+    }
+
+    /**
+     * Replace the user's muted types
+     *
+     * @throws ValidationException for an unknown type name
+     */
+    @Transactional
+    public Set<NotificationType> setMutedTypes(Long userId, Collection<String> typeNames) {
+        int mask = 0;
+        for (String name : typeNames) {
+            try {
+                mask |= bit(NotificationType.valueOf(name));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ValidationException("Unknown notification type: " + name);
+            }
+        }
+        if (userRepository.setMutedNotificationTypes(userId, mask) == 0) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        int newMask = mask;
+        AfterCommit.run(() -> cache(userId, newMask));
+        return toTypes(mask);
+    }
+
+    /**
+     * Forget a deleted account
+     */
+    public void removeUser(Long userId) {
+        mutedMasks.remove(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query("SELECT id, muted_notification_types FROM users WHERE muted_notification_types <> 0", rs -> {
+            mutedMasks.put(rs.getLong(1), rs.getInt(2));
+        });
+        ready = true;
+        log.info("Notification preferences loaded: {} users with muted types", mutedMasks.size());
+    }
+
+    private int mask(Long userId) {
+        if (!ready) {
+            List<Integer> masks = jdbcTemplate.queryForList(
+                    "SELECT muted_notification_types FROM users WHERE id = ?", Integer.class, userId);
+            return masks.isEmpty() || masks.get(0) == null ? 0 : masks.get(0);
+        }
+        return mutedMasks.getOrDefault(userId, 0);
+    }
+
+    private void cache(Long userId, int mask) {
+        if (mask == 0) {
+            mutedMasks.remove(userId);
+        } else {
+            mutedMasks.put(userId, mask);
+        }
+    }
+
+    private static Set<NotificationType> toTypes(int mask) {
+        Set<NotificationType> types = EnumSet.noneOf(NotificationType.class);
+        for (NotificationType type : NotificationType.values()) {
+            if ((mask & bit(type)) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private static int bit(NotificationType type) {
+        return 1 << type.ordinal();
+    }
+}
@@ -0,0 +1,177 @@
+package com.blog.blogger.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NotificationRetentionService - Keeps notifications for notifications.retention-months
+ *
+ * On MySQL the notifications table can be partitioned by month
+ * (RANGE on TO_DAYS(created_at), one partition pYYYYMM per month plus a pmax
+ * catch-all). The conversion is a one-off operation an admin runs through
+ * POST /auth/admin/notifications/partition, and only with
+ * notifications.partitioning-enabled: it rebuilds the whole table, and since
+ * partitioned tables cannot have foreign keys and their primary key must contain
+ * the partition column, the user_id foreign key is dropped and the primary key
+ * becomes (id, created_at).
+ *
+ * The compactor then drops whole partitions older than the retention window
+ * (a metadata operation, no row-by-row delete) and keeps MONTHS_AHEAD empty
+ * partitions ready. Without partitioning (other databases, or not enabled) it
+ * deletes the expired rows in bounded chunks instead. Either way no notification
+ * outlives the window, so reads per user only cover the retained months.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+    static final int MONTHS_AHEAD = 2;
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCountService unreadCountService;
+    private final int retentionMonths;
+    private final int batchSize;
+    private final boolean partitioningEnabled;
+
+    public NotificationRetentionService(JdbcTemplate jdbcTemplate,
+                                        UnreadCountService unreadCountService,
+                                        @Value("${notifications.retention-months:6}") int retentionMonths,
+                                        @Value("${notifications.retention-batch-size:1000}") int batchSize,
+                                        @Value("${notifications.partitioning-enabled:false}") boolean partitioningEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadCountService = unreadCountService;
+        this.retentionMonths = retentionMonths;
+        this.batchSize = batchSize;
+        this.partitioningEnabled = partitioningEnabled;
+    }
+
+    /**
+     * Drop (partitioned) or delete (otherwise) every notification older than the retention window
+     */
+    @Scheduled(fixedDelayString = "${notifications.retention-interval-ms:21600000}", initialDelay = 60000)
+    public void compact() {
+        LocalDate cutoff = cutoff(LocalDate.now(), retentionMonths);
+        if (isMySql() && !partitions().isEmpty()) {
+            dropPartitionsBefore(cutoff);
+            addPartitionsAhead();
+        } else {
+            long deleted = unreadCountService.deleteNotifications(batchSize, "n.created_at < ?", cutoff.atStartOfDay());
+            if (deleted > 0) {
+                log.info("Deleted {} notifications created before {}", deleted, cutoff);
+            }
+        }
+    }
+
+    private void dropPartitionsBefore(LocalDate cutoff) {
+        List<String> expired = jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions"
+                        + " WHERE table_schema = DATABASE() AND table_name = 'notifications'"
+                        + " AND partition_description <> 'MAXVALUE' AND CAST(partition_description AS UNSIGNED) <= TO_DAYS(?)",
+                String.class, cutoff);
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE notifications DROP PARTITION " + String.join(", ", expired));
+        // Unread rows went with the partitions
+        unreadCountService.reconcile();
+        log.info("Dropped notification partitions {} (before {})", expired, cutoff);
+    }
+
+    private void addPartitionsAhead() {
+        LocalDate last = LocalDate.now().withDayOfMonth(1).plusMonths(MONTHS_AHEAD);
+        LocalDate next = jdbcTemplate.queryForObject(
+                "SELECT FROM_DAYS(MAX(CAST(partition_description AS UNSIGNED))) FROM information_schema.partitions"
+                        + " WHERE table_schema = DATABASE() AND table_name = 'notifications' AND partition_description <> 'MAXVALUE'",
+                LocalDate.class);
+        List<String> added = new ArrayList<>();
+        for (LocalDate month = next; month != null && !month.isAfter(last); month = month.plusMonths(1)) {
+            added.add(partitionFor(month));
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE notifications REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + String.join(", ", added) + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+        }
+    }
+
+    /**
+     * Convert the notifications table to monthly partitions
+     * Rebuilds the whole table (writes to it wait meanwhile) and drops its foreign keys
+     *
+     * @return what was done
+     */
+    public String partitionTable() {
+        if (!partitioningEnabled) {
+            throw new IllegalStateException("Notification partitioning is not enabled (notifications.partitioning-enabled)");
+        }
+        if (!isMySql()) {
+            throw new IllegalStateException("Notification partitioning needs MySQL");
+        }
+        if (!partitions().isEmpty()) {
+            return "Notifications are already partitioned";
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM notifications", Timestamp.class);
+        LocalDate first = oldest == null ? LocalDate.now() : oldest.toLocalDateTime().toLocalDate();
+        first = first.withDayOfMonth(1);
+        LocalDate last = LocalDate.now().withDayOfMonth(1).plusMonths(MONTHS_AHEAD);
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            definitions.add(partitionFor(month));
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE");
+
+        for (String foreignKey : jdbcTemplate.queryForList(
+                "SELECT constraint_name FROM information_schema.referential_constraints"
+                        + " WHERE constraint_schema = DATABASE() AND table_name = 'notifications'",
+                String.class)) {
+            jdbcTemplate.execute("ALTER TABLE notifications DROP FOREIGN KEY " + foreignKey);
+        }
+        jdbcTemplate.execute("ALTER TABLE notifications DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE notifications PARTITION BY RANGE (TO_DAYS(created_at)) ("
+                + String.join(", ", definitions) + ")");
+        log.info("Notifications partitioned by month from {} to {}", first, last);
+        return "Notifications partitioned by month from " + first + " to " + last;
+    }
+
+    /**
+     * First day of the oldest month kept: rows created before it are expired
+     */
+    static LocalDate cutoff(LocalDate today, int retentionMonths) {
+        return today.withDayOfMonth(1).minusMonths(retentionMonths);
+    }
+
+    /**
+     * Partition holding the rows of the month starting at month
+     */
+    static String partitionFor(LocalDate month) {
+        return "PARTITION " + month.format(PARTITION_NAME)
+                + " VALUES LESS THAN (TO_DAYS('" + month.plusMonths(1) + "'))";
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT partition_name FROM information_schema.partitions"
+                        + " WHERE table_schema = DATABASE() AND table_name = 'notifications' AND partition_name IS NOT NULL",
+                String.class);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+}
@@ -1,49 +1,41 @@
 package com.blog.blogger.services;
 
+import com.blog.blogger.dto.CursorPage;
+import com.blog.blogger.dto.NotificationFeedItemDTO;
 import com.blog.blogger.models.Notification;
 import com.blog.blogger.models.Post;
 import com.blog.blogger.models.User;
 import com.blog.blogger.repositories.NotificationRepository;
+import com.blog.blogger.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
-    private final NotificationRepository notificationRepository;
-
-    /**
-     * 
-     * 
-     * @param post 
-     * @param followers
-     */
-    @Transactional
-    public void notifyFollowersAboutNewPost(Post post, List<User> followers) {
-        User author = post.getAuthor();
-
-        for (User follower : followers) {
-            
-            if (follower.getIsBanned()) {
-                continue;
-            }
+    static final int MAX_SAMPLE_ACTORS = 3;
 
-            Notification notification = new Notification();
-            notification.setUser(follower);
-            notification.setMessage(author.getUsername() + " published a new post: " + post.getTitle());
-            notification.setType(Notification.NotificationType.NEW_POST);
-            notification.setRelatedPostId(post.getId());
-            notification.setRelatedUserId(author.getId());
+    private final NotificationRepository notificationRepository;
+    private final UnreadCountService unreadCountService;
+    private final NotificationStreamService notificationStreamService;
+    private final ReadWatermarkService readWatermarkService;
+    private final NotificationPreferenceService notificationPreferenceService;
 
-            notificationRepository.save(notification);
-        }
-    }
+    // Likes/comments on the same post within this window are merged into one notification
+    @Value("${notifications.coalesce-window-minutes:60}")
+    private long coalesceWindowMinutes;
 
    
     @Transactional
@@ -53,6 +45,10 @@ public class NotificationService {
             return;
         }
 
+        if (notificationPreferenceService.isMuted(followedUser.getId(), Notification.NotificationType.NEW_FOLLOWER)) {
+            return;
+        }
+
         Notification notification = new Notification();
         notification.setUser(followedUser);
         notification.setMessage(follower.getUsername() + " started following you");
@@ -60,6 +56,8 @@ public class NotificationService {
         notification.setRelatedUserId(follower.getId());
 
         notificationRepository.save(notification);
+        unreadCountService.add(notification.getUser().getId(), 1);
+        notificationStreamService.publish(notification);
     }
 
    
@@ -75,14 +73,7 @@ public class NotificationService {
             return;
         }
 
-        Notification notification = new Notification();
-        notification.setUser(postAuthor);
-        notification.setMessage(liker.getUsername() + " liked your post: " + post.getTitle());
-        notification.setType(Notification.NotificationType.POST_LIKE);
-        notification.setRelatedPostId(post.getId());
-        notification.setRelatedUserId(liker.getId());
-
-        notificationRepository.save(notification);
+        notifyCoalesced(postAuthor, Notification.NotificationType.POST_LIKE, post, liker, "liked");
     }
 
   
@@ -100,34 +91,117 @@ public class NotificationService {
             return;
         }
 
+        notifyCoalesced(postAuthor, Notification.NotificationType.COMMENT, post, commenter, "commented on");
+    }
+
+    /**
+     * Merge the event into the recipient's unread notification of the same type about the same post,
+     * if one was created within the coalescing window ("alice and 41 others liked your post"),
+     * otherwise create one
+     * An actor already among the sample actors is not counted twice
+     */
+    private void notifyCoalesced(User recipient, Notification.NotificationType type, Post post, User actor, String action) {
+        if (notificationPreferenceService.isMuted(recipient.getId(), type)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Notification> open = notificationRepository
+                .findFirstByUserAndTypeAndRelatedPostIdAndIsReadFalseAndIdGreaterThanAndCreatedAtAfterOrderByIdDesc(
+                        recipient, type, post.getId(), readWatermarkService.getLastReadId(recipient.getId()),
+                        now.minusMinutes(coalesceWindowMinutes));
+
+        if (open.isPresent()) {
+            Notification notification = open.get();
+            // Rows created before coalescing have no actor_count or samples: they stand for their related user
+            List<String> samples = new ArrayList<>();
+            if (notification.getSampleActorIds() != null && !notification.getSampleActorIds().isEmpty()) {
+                samples.addAll(Arrays.asList(notification.getSampleActorIds().split(",")));
+            } else if (notification.getRelatedUserId() != null) {
+                samples.add(String.valueOf(notification.getRelatedUserId()));
+            }
+            String actorId = String.valueOf(actor.getId());
+            int actorCount = notification.getActorCount() == null ? 1 : notification.getActorCount();
+            notification.setActorCount(samples.remove(actorId) ? actorCount : actorCount + 1);
+            samples.add(0, actorId);
+            notification.setSampleActorIds(String.join(",", samples.subList(0, Math.min(samples.size(), MAX_SAMPLE_ACTORS))));
+            notification.setRelatedUserId(actor.getId());
+            notification.setMessage(coalescedMessage(actor, notification.getActorCount(), action, post));
+            notification.setUpdatedAt(now);
+            notificationRepository.save(notification);
+            notificationStreamService.publish(notification);
+            return;
+        }
+
         Notification notification = new Notification();
-        notification.setUser(postAuthor);
-        notification.setMessage(commenter.getUsername() + " commented on your post: " + post.getTitle());
-        notification.setType(Notification.NotificationType.COMMENT);
+        notification.setUser(recipient);
+        notification.setMessage(coalescedMessage(actor, 1, action, post));
+        notification.setType(type);
         notification.setRelatedPostId(post.getId());
-        notification.setRelatedUserId(commenter.getId());
+        notification.setRelatedUserId(actor.getId());
+        notification.setSampleActorIds(String.valueOf(actor.getId()));
 
         notificationRepository.save(notification);
+        unreadCountService.add(recipient.getId(), 1);
+        notificationStreamService.publish(notification);
+    }
+
+    private List<Notification> applyReadWatermark(List<Notification> notifications, Long userId) {
+        long lastReadId = readWatermarkService.getLastReadId(userId);
+        for (Notification notification : notifications) {
+            notification.setBelowReadWatermark(notification.getId() <= lastReadId);
+        }
+        return notifications;
+    }
+
+    private static String coalescedMessage(User latestActor, int actorCount, String action, Post post) {
+        String others = actorCount <= 1 ? ""
+                : actorCount == 2 ? " and 1 other"
+                : " and " + (actorCount - 1) + " others";
+        return latestActor.getUsername() + others + " " + action + " your post: " + post.getTitle();
     }
 
   
     public List<Notification> getUserNotifications(User user) {
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        return applyReadWatermark(notificationRepository.findByUserOrderByCreatedAtDesc(user), user.getId());
+    }
+
+    /**
+     * One keyset page of the user's notifications, newest first, as flat rows
+     */
+    public CursorPage<NotificationFeedItemDTO> getFeedPage(Long userId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<NotificationFeedItemDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findFeedFirstPage(userId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = notificationRepository.findFeedAfter(userId, position.getCreatedAt(), position.getId(), limit);
+        }
+        long lastReadId = readWatermarkService.getLastReadId(userId);
+        for (NotificationFeedItemDTO row : rows) {
+            if (row.getId() <= lastReadId) {
+                row.setIsRead(true);
+            }
+        }
+        return CursorPage.of(rows, size, item -> new KeysetCursor(item.getCreatedAt(), item.getId()));
     }
 
    
     public Page<Notification> getUserNotifications(User user, Pageable pageable) {
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+        Page<Notification> page = notificationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+        applyReadWatermark(page.getContent(), user.getId());
+        return page;
     }
 
    
     public List<Notification> getUnreadNotifications(User user) {
-        return notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
+        return notificationRepository.findByUserAndIsReadFalseAndIdGreaterThanOrderByCreatedAtDesc(
+                user, readWatermarkService.getLastReadId(user.getId()));
     }
 
   
     public Long getUnreadNotificationCount(User user) {
-        return notificationRepository.countByUserAndIsReadFalse(user);
+        return unreadCountService.getUnreadCount(user.getId());
     }
 
    
@@ -141,14 +215,21 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized to mark this notification as read");
         }
 
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        applyReadWatermark(List.of(notification), user.getId());
+        if (!notification.getIsRead()) {
+            notification.setIsRead(true);
+            notificationRepository.save(notification);
+            unreadCountService.add(user.getId(), -1);
+        }
     }
 
     
+    /**
+     * Mark everything read by moving the user's read watermark (one row), not by updating every unread row
+     */
     @Transactional
     public void markAllAsRead(User user) {
-        notificationRepository.markAllAsReadForUser(user);
+        unreadCountService.add(user.getId(), -readWatermarkService.markAllRead(user.getId()));
     }
 
    
@@ -162,18 +243,23 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized to delete this notification");
         }
 
+        applyReadWatermark(List.of(notification), user.getId());
         notificationRepository.delete(notification);
+        if (!notification.getIsRead()) {
+            unreadCountService.add(user.getId(), -1);
+        }
     }
 
    
     @Transactional
     public void deleteReadNotifications(User user) {
-        notificationRepository.deleteReadNotificationsForUser(user);
+        notificationRepository.deleteReadNotificationsForUser(user, readWatermarkService.getLastReadId(user.getId()));
     }
 
    
     @Transactional
     public void deleteAllNotificationsForUser(User user) {
         notificationRepository.deleteByUser(user);
+        unreadCountService.removeUser(user.getId());
     }
 }
@@ -0,0 +1,205 @@
+package com.blog.blogger.services;
+
+import com.blog.blogger.models.Notification;
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.BatchDelete;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * NotificationStreamService - Pushes new notifications to connected clients (SSE)
+ *
+ * GET /auth/notifications/stream returns an SseEmitter; the request is put in
+ * async mode, so an open connection holds no servlet thread. Every notification
+ * is sent as a "notification" event whose id is the notification id, together
+ * with the user's unread count, right after the transaction creating it commits.
+ * A coalesced notification that gains an actor is sent again under the same id.
+ *
+ * A reconnecting client sends Last-Event-ID and first receives the notifications
+ * created after it (at most REPLAY_LIMIT, oldest first). A comment line is sent
+ * every notifications.stream-heartbeat-ms to keep proxies from closing idle
+ * connections and to drop clients that went away.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamService.class);
+    static final int REPLAY_LIMIT = 100;
+    private static final String COLUMNS = "id, message, type, related_post_id, related_user_id, is_read, actor_count, sample_actor_ids, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCountService unreadCountService;
+    private final ReadWatermarkService readWatermarkService;
+    private final long timeoutMillis;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public NotificationStreamService(JdbcTemplate jdbcTemplate,
+                                     UnreadCountService unreadCountService,
+                                     ReadWatermarkService readWatermarkService,
+                                     @Value("${notifications.stream-timeout-ms:1800000}") long timeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadCountService = unreadCountService;
+        this.readWatermarkService = readWatermarkService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Open a stream for the user, replaying what they missed after lastEventId
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<SseEmitter> userEmitters = emitters.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        userEmitters.add(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        try {
+            if (lastEventId != null) {
+                List<Map<String, Object>> missed = jdbcTemplate.query(
+                        "SELECT " + COLUMNS + " FROM notifications WHERE user_id = ? AND id > ? ORDER BY id LIMIT ?",
+                        EVENT_MAPPER, userId, lastEventId, REPLAY_LIMIT);
+                long lastReadId = readWatermarkService.getLastReadId(userId);
+                for (Map<String, Object> event : missed) {
+                    if ((Long) event.get("id") <= lastReadId) {
+                        event.put("isRead", true);
+                    }
+                    event.put("unreadCount", unreadCountService.getUnreadCount(userId));
+                    emitter.send(toEvent(event));
+                }
+            } else {
+                // Flushes the response headers so the client sees the stream as open
+                emitter.send(SseEmitter.event().comment("connected"));
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Push a notification saved in the current transaction once it commits
+     */
+    public void publish(Notification notification) {
+        Long userId = notification.getUser().getId();
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", notification.getId());
+        event.put("message", notification.getMessage());
+        event.put("type", notification.getType());
+        event.put("relatedPostId", notification.getRelatedPostId());
+        event.put("relatedUserId", notification.getRelatedUserId());
+        event.put("isRead", notification.getIsRead());
+        event.put("actorCount", notification.getActorCount());
+        event.put("sampleActorIds", notification.getSampleActorIds());
+        event.put("createdAt", notification.getCreatedAt());
+        AfterCommit.run(() -> send(userId, event));
+    }
+
+    /**
+     * Push the NEW_POST notifications of a committed fan-out chunk to the followers that are connected
+     */
+    public void publishNewPost(Long postId, List<Long> followerIds) {
+        List<Object> connected = new ArrayList<>();
+        for (Long followerId : followerIds) {
+            if (emitters.containsKey(followerId)) {
+                connected.add(followerId);
+            }
+        }
+        if (connected.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[connected.size() + 1];
+        args[0] = postId;
+        for (int i = 0; i < connected.size(); i++) {
+            args[i + 1] = connected.get(i);
+        }
+        List<Map<String, Object>> events = jdbcTemplate.query(
+                "SELECT user_id, " + COLUMNS + " FROM notifications WHERE related_post_id = ? AND type = 'NEW_POST'"
+                        + " AND user_id IN (" + BatchDelete.placeholders(connected.size()) + ")",
+                (rs, i) -> {
+                    Map<String, Object> event = EVENT_MAPPER.mapRow(rs, i);
+                    event.put("userId", rs.getLong("user_id"));
+                    return event;
+                },
+                args);
+        for (Map<String, Object> event : events) {
+            send((Long) event.remove("userId"), event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream-heartbeat-ms:15000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void send(Long userId, Map<String, Object> event) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        event.put("unreadCount", unreadCountService.getUnreadCount(userId));
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(toEvent(event));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Map<String, Object> event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.get("id")))
+                .name("notification")
+                .data(event);
+    }
+
+    private static final RowMapper<Map<String, Object>> EVENT_MAPPER = (rs, i) -> {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", rs.getLong("id"));
+        event.put("message", rs.getString("message"));
+        event.put("type", rs.getString("type"));
+        event.put("relatedPostId", rs.getObject("related_post_id") == null ? null : rs.getLong("related_post_id"));
+        event.put("relatedUserId", rs.getObject("related_user_id") == null ? null : rs.getLong("related_user_id"));
+        event.put("isRead", rs.getBoolean("is_read"));
+        event.put("actorCount", rs.getObject("actor_count") == null ? 1 : rs.getInt("actor_count"));
+        event.put("sampleActorIds", rs.getString("sample_actor_ids"));
+        event.put("createdAt", rs.getTimestamp("created_at").toLocalDateTime());
+        return event;
+    };
+}
@@ -0,0 +1,74 @@
+package com.blog.blogger.services;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ReadWatermarkService - Per-user "read up to" notification id
+ *
+ * notification_state.last_read_id marks every notification of the user with an
+ * id at or below it as read, whatever its is_read flag says. Marking everything
+ * read is then one single-row update instead of an UPDATE over all unread rows;
+ * is_read is still set for notifications read one at a time.
+ */
+@Service
+public class ReadWatermarkService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReadWatermarkService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long getLastReadId(Long userId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT last_read_id FROM notification_state WHERE user_id = ?", Long.class, userId);
+        return ids.isEmpty() || ids.get(0) == null ? 0 : ids.get(0);
+    }
+
+    /**
+     * Move the watermark to the user's newest notification (call inside a transaction)
+     *
+     * @return number of notifications that were unread and are now read
+     */
+    public long markAllRead(Long userId) {
+        Long newest = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM notifications WHERE user_id = ?", Long.class, userId);
+        if (newest == null) {
+            return 0;
+        }
+
+        ensureState(userId);
+        // Row lock: concurrent "mark all read" calls of the same user move the watermark one at a time
+        long lastReadId = jdbcTemplate.queryForObject(
+                "SELECT last_read_id FROM notification_state WHERE user_id = ? FOR UPDATE", Long.class, userId);
+        if (newest <= lastReadId) {
+            return 0;
+        }
+
+        Long newlyRead = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = false AND id > ? AND id <= ?",
+                Long.class, userId, lastReadId, newest);
+        jdbcTemplate.update("UPDATE notification_state SET last_read_id = ? WHERE user_id = ?", newest, userId);
+        return newlyRead == null ? 0 : newlyRead;
+    }
+
+    private void ensureState(Long userId) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_state WHERE user_id = ?", Integer.class, userId);
+        if (exists != null && exists > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO notification_state (user_id, unread_count, last_read_id, updated_at) VALUES (?, 0, 0, ?)",
+                    userId, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            // Created concurrently (counter flush or another request)
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.blog.blogger.services;
+
+import com.blog.blogger.utils.AfterCommit;
+import com.blog.blogger.utils.BatchDelete;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UnreadCountService - Per-user unread notification counters kept in memory
+ *
+ * Every change to a notification's unread state reports a delta here (after
+ * commit), so GET /auth/notifications/unread/count reads one map entry.
+ *
+ * Changed counters are written to notification_state every
+ * notifications.unread-flush-interval-ms (and on shutdown). On startup the
+ * saved counters are loaded first, then recounted from notifications with one
+ * grouped query over (user_id, is_read); the recount repeats on
+ * notifications.unread-reconcile-interval-ms and fixes any drift, e.g. deltas
+ * not yet flushed when the process died. A counter changed while a recount is
+ * running keeps its live value. Until the startup load is done, counts come from
+ * the database.
+ */
+@Service
+public class UnreadCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCountService.class);
+    private static final int LOAD_BATCH_SIZE = 10000;
+    // Unread: not marked read one by one and above the user's read watermark (notifications n, notification_state s)
+    private static final String UNREAD = "n.is_read = false AND n.id > COALESCE(s.last_read_id, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public UnreadCountService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public long getUnreadCount(Long userId) {
+        if (!ready) {
+            Long count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM notifications n LEFT JOIN notification_state s ON s.user_id = n.user_id"
+                            + " WHERE n.user_id = ? AND " + UNREAD, Long.class, userId);
+            return count == null ? 0 : count;
+        }
+        Counter counter = counters.get(userId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * delta unread notifications for the user (negative when read or deleted)
+     */
+    public void add(Long userId, long delta) {
+        if (delta != 0) {
+            AfterCommit.run(() -> addNow(userId, delta));
+        }
+    }
+
+    /**
+     * Forget the counter of a deleted account
+     */
+    public void removeUser(Long userId) {
+        counters.remove(userId);
+        dirty.remove(userId);
+        jdbcTemplate.update("DELETE FROM notification_state WHERE user_id = ?", userId);
+    }
+
+    /**
+     * Delete the notifications matching where in chunks of batchSize, taking the unread ones off their counters
+     * where is applied to notifications n joined to notification_state s
+     *
+     * @return number of rows deleted
+     */
+    public long deleteNotifications(int batchSize, String where, Object... args) {
+        String select = "SELECT n.id, n.user_id, CASE WHEN " + UNREAD + " THEN 1 ELSE 0 END AS unread"
+                + " FROM notifications n LEFT JOIN notification_state s ON s.user_id = n.user_id"
+                + " WHERE " + where + " ORDER BY n.id LIMIT " + batchSize;
+        long deleted = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(select, args);
+            if (!rows.isEmpty()) {
+                Object[] ids = new Object[rows.size()];
+                Map<Long, Long> unread = new HashMap<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    Map<String, Object> row = rows.get(i);
+                    ids[i] = row.get("id");
+                    if (((Number) row.get("unread")).intValue() == 1) {
+                        unread.merge(((Number) row.get("user_id")).longValue(), 1L, Long::sum);
+                    }
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM notifications WHERE id IN (" + BatchDelete.placeholders(ids.length) + ")", ids);
+                    unread.forEach((userId, count) -> add(userId, -count));
+                });
+                deleted += rows.size();
+            }
+        } while (rows.size() == batchSize);
+        return deleted;
+    }
+
+    /**
+     * Load the saved counters, then recount them from notifications
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastUserId = 0;
+        List<long[]> rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT user_id, unread_count FROM notification_state WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                    (rs, i) -> new long[] {rs.getLong(1), rs.getLong(2)},
+                    lastUserId, LOAD_BATCH_SIZE);
+            for (long[] row : rows) {
+                counters.computeIfAbsent(row[0], id -> new Counter()).setIfUnchanged(row[1], 0);
+                lastUserId = row[0];
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+        ready = true;
+        log.info("Unread notification counters loaded for {} users", counters.size());
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread-reconcile-interval-ms:3600000}",
+            initialDelayString = "${notifications.unread-reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        counters.forEach((userId, counter) -> versions.put(userId, counter.version()));
+
+        Map<Long, Long> actual = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT n.user_id, COUNT(*) FROM notifications n LEFT JOIN notification_state s ON s.user_id = n.user_id"
+                        + " WHERE " + UNREAD + " GROUP BY n.user_id",
+                rs -> {
+                    actual.put(rs.getLong(1), rs.getLong(2));
+                });
+
+        int corrected = 0;
+        for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+            Long version = versions.remove(entry.getKey());
+            // A user first seen by the query may have gained a counter since; only set it if untouched
+            Counter counter = counters.computeIfAbsent(entry.getKey(), id -> new Counter());
+            if (counter.setIfUnchanged(entry.getValue(), version == null ? 0 : version)) {
+                dirty.add(entry.getKey());
+                corrected++;
+            }
+        }
+        for (Map.Entry<Long, Long> entry : versions.entrySet()) {
+            Counter counter = counters.get(entry.getKey());
+            if (counter != null && counter.setIfUnchanged(0, entry.getValue())) {
+                dirty.add(entry.getKey());
+                corrected++;
+            }
+        }
+        log.debug("Unread notification counters reconciled: {} users, {} corrected", actual.size(), corrected);
+    }
+
+    /**
+     * Write the counters changed since the last flush to notification_state
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread-flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(dirty);
+        userIds.forEach(dirty::remove);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Counter counter = counters.get(userId);
+            rows.add(new Object[] {counter == null ? 0 : counter.get(), now, userId});
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(
+                        "UPDATE notification_state SET unread_count = ?, updated_at = ? WHERE user_id = ?", rows);
+                List<Object[]> inserts = new ArrayList<>();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        inserts.add(rows.get(i));
+                    }
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO notification_state (unread_count, updated_at, user_id, last_read_id) VALUES (?, ?, ?, 0)", inserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(userIds);
+            throw e;
+        }
+    }
+
+    private void addNow(Long userId, long delta) {
+        counters.computeIfAbsent(userId, id -> new Counter()).add(delta);
+        dirty.add(userId);
+    }
+
+    /**
+     * Unread count plus a version bumped by every delta, so a recount never overwrites a newer change
+     */
+    private static final class Counter {
+
+        private long count;
+        private long version;
+
+        synchronized long get() {
+            return count;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized void add(long delta) {
+            count = Math.max(0, count + delta);
+            version++;
+        }
+
+        synchronized boolean setIfUnchanged(long value, long expectedVersion) {
+            if (version != expectedVersion || count == value) {
+                return false;
+            }
+            count = value;
+            return true;
+        }
+    }
+}
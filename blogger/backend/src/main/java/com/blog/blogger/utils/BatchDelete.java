@@ -0,0 +1,49 @@
+package com.blog.blogger.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * BatchDelete - Set-based deletes in bounded chunks
+ *
+ * Rows are deleted by primary key, at most batchSize per transaction, so a large
+ * delete never keeps many row locks or a long transaction open, and memory use
+ * does not depend on how many rows match.
+ */
+public final class BatchDelete {
+
+    private BatchDelete() {
+    }
+
+    /**
+     * Delete every row of table matching where (a SQL condition using ? placeholders)
+     *
+     * @return number of rows deleted
+     */
+    public static long byIds(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int batchSize,
+                             String table, String where, Object... args) {
+        String select = "SELECT id FROM " + table + " WHERE " + where + " ORDER BY id LIMIT " + batchSize;
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(select, Long.class, args);
+            if (!ids.isEmpty()) {
+                String sql = "DELETE FROM " + table + " WHERE id IN (" + placeholders(ids.size()) + ")";
+                Object[] idArgs = ids.toArray();
+                Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(sql, idArgs));
+                deleted += rows == null ? 0 : rows;
+            }
+        } while (ids.size() == batchSize);
+        return deleted;
+    }
+
+    /**
+     * "?,?,?" for an IN list of count values
+     */
+    public static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.blog.blogger.utils;
+
+import java.util.Arrays;
+
+/**
+ * SortedLongSet - Compact set of long ids backed by a sorted primitive array
+ *
+ * Membership is a binary search and the memory cost is 8 bytes per id (plus up
+ * to 50% spare capacity), with no boxing and no per-entry objects. Inserts and
+ * removals shift the array, which is cheap for the sizes we keep per user.
+ * All methods are synchronized, one instance can be shared between threads.
+ */
+public class SortedLongSet {
+
+    private long[] values;
+    private int size;
+
+    public SortedLongSet() {
+        this.values = new long[4];
+    }
+
+    /**
+     * Build a set from ids in any order, duplicates are dropped
+     */
+    public static SortedLongSet of(long[] ids) {
+        SortedLongSet set = new SortedLongSet();
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        set.values = distinct == 0 ? new long[4] : sorted;
+        set.size = distinct;
+        return set;
+    }
+
+    public synchronized boolean contains(long id) {
+        return Arrays.binarySearch(values, 0, size, id) >= 0;
+    }
+
+    public synchronized boolean add(long id) {
+        int index = Arrays.binarySearch(values, 0, size, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+        }
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    public synchronized boolean remove(long id) {
+        int index = Arrays.binarySearch(values, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Copy of the ids in ascending order
+     */
+    public synchronized long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,50 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HotRankingServiceTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void newerPostsWinAtEqualEngagement() {
+        HotRankingService.Ranking ranking = new HotRankingService.Ranking();
+        ranking.put(1L, NOW - 7200, 5, 0);
+        ranking.put(2L, NOW, 5, 0);
+
+        assertEquals(List.of(2L, 1L), ranking.slice(0, 10));
+    }
+
+    @Test
+    void engagementMovesOlderPostsUp() {
+        HotRankingService.Ranking ranking = new HotRankingService.Ranking();
+        ranking.put(1L, NOW - 3600, 0, 0);
+        ranking.put(2L, NOW, 0, 0);
+
+        ranking.adjust(1L, 3, 1);
+        assertEquals(List.of(1L, 2L), ranking.slice(0, 10));
+
+        ranking.adjust(1L, -3, -1);
+        assertEquals(List.of(2L, 1L), ranking.slice(0, 10));
+        assertEquals(List.of(1L), ranking.slice(1, 10));
+    }
+
+    @Test
+    void removedAndOldPostsLeaveTheRanking() {
+        HotRankingService.Ranking ranking = new HotRankingService.Ranking();
+        ranking.put(1L, NOW - 86400, 100, 0);
+        ranking.put(2L, NOW, 0, 0);
+        ranking.put(3L, NOW, 1, 0);
+
+        ranking.remove(3L);
+        ranking.removeOlderThan(NOW - 3600);
+        ranking.adjust(1L, 1, 0); // no longer tracked, ignored
+
+        assertEquals(List.of(2L), ranking.slice(0, 10));
+        assertEquals(1, ranking.size());
+    }
+}
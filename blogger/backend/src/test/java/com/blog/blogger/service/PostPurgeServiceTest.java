@@ -0,0 +1,53 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class PostPurgeServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void purgeCommentsTakesDeletedCommentsOffTheStats() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        StatsCounterService statsCounterService = mock(StatsCounterService.class);
+        PostPurgeService purgeService = new PostPurgeService(
+                jdbcTemplate, transactionTemplate, null, statsCounterService, null, 500, 20);
+
+        // MySQL Connector/J returns LocalDateTime, not Timestamp, for DATETIME columns
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(3);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(11L);
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(createdAt);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(5L))).thenAnswer(invocation -> {
+            RowMapper<Map<String, Object>> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(rs, 0));
+        });
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        assertEquals(1, purgeService.purgeComments("post_id = ?", 5L));
+        verify(jdbcTemplate).update("DELETE FROM comments WHERE id IN (?)", 11L);
+        verify(statsCounterService).onCommentDeleted(createdAt);
+    }
+}
@@ -0,0 +1,59 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostSearchIndexTest {
+
+    @Test
+    void ranksTitleMatchesFirstAndPaginates() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(1L, "Cooking pasta", "A short note about spring vegetables", List.of());
+        index.put(2L, "Spring Boot tips", "Configuring a Java service", List.of("java"));
+        index.put(3L, "Weekend", "Nothing to see here", List.of());
+
+        PostSearchIndex.SearchResult result = index.search("spring", 0, 10);
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(2L, 1L), result.getPostIds());
+
+        assertEquals(List.of(1L), index.search("Spring", 1, 1).getPostIds());
+        assertEquals(List.of(2L), index.search("JAVA", 0, 10).getPostIds());
+    }
+
+    @Test
+    void replacesAndRemovesPosts() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(1L, "Old title", "about kotlin", List.of());
+        index.put(1L, "New title", "about scala", List.of());
+
+        assertEquals(0, index.search("kotlin", 0, 10).getTotal());
+        assertEquals(List.of(1L), index.search("scala", 0, 10).getPostIds());
+
+        index.remove(1L);
+        assertEquals(0, index.search("scala", 0, 10).getTotal());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void segmentRoundTrip() throws Exception {
+        PostSearchIndex index = new PostSearchIndex();
+        index.put(1L, "Angular forms", "Reactive forms", List.of("frontend"));
+        index.put(2L, "Docker", "Images and containers", List.of());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeSegment(new DataOutputStream(bytes));
+
+        PostSearchIndex loaded = new PostSearchIndex();
+        loaded.readSegment(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, loaded.size());
+        assertEquals(List.of(1L), loaded.search("frontend forms", 0, 10).getPostIds());
+    }
+}
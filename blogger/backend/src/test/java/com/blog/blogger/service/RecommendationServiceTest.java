@@ -0,0 +1,50 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RecommendationServiceTest {
+
+    @Test
+    void countsMutualsAndSkipsViewerAndFollowed() {
+        // 1 follows 2, 3; 2 follows 1, 3, 4, 5; 3 follows 4
+        Map<Long, long[]> graph = Map.of(
+                1L, new long[] {2, 3},
+                2L, new long[] {1, 3, 4, 5},
+                3L, new long[] {4});
+
+        RecommendationService.LongIntMap counts = RecommendationService.countSecondDegree(
+                1L, graph.get(1L), id -> graph.getOrDefault(id, new long[0]));
+
+        assertEquals(2, counts.size());
+        assertEquals(2, counts.get(4));
+        assertEquals(1, counts.get(5));
+        assertEquals(0, counts.get(3));
+    }
+
+    @Test
+    void splitsLargeFollowingSetsWithoutLosingCounts() {
+        int followed = RecommendationService.SPLIT_THRESHOLD * 10;
+        long[] following = new long[followed];
+        for (int i = 0; i < followed; i++) {
+            following[i] = 1000 + i;
+        }
+
+        // Every followed account follows candidates 1..100
+        long[] candidates = new long[100];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i + 1;
+        }
+
+        RecommendationService.LongIntMap counts = RecommendationService.countSecondDegree(
+                5000L, following, id -> candidates);
+
+        assertEquals(100, counts.size());
+        for (long candidate : candidates) {
+            assertEquals(followed, counts.get(candidate));
+        }
+    }
+}
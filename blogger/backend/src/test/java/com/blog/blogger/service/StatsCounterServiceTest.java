@@ -0,0 +1,71 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.blog.blogger.dto.AdminStatsDTO;
+import com.blog.blogger.models.Role;
+import com.blog.blogger.models.User;
+
+class StatsCounterServiceTest {
+
+    @Test
+    void countsEventsIntoTotalsAndDays() {
+        StatsCounterService stats = new StatsCounterService(null, null, null);
+        LocalDateTime now = LocalDateTime.now();
+
+        User admin = User.builder().role(Role.ADMIN).createdAt(now).build();
+        User user = User.builder().role(Role.USER).createdAt(now.minusDays(2)).build();
+        stats.onUserCreated(admin);
+        stats.onUserCreated(user);
+        stats.onBanChanged(1);
+        stats.onRoleChanged(Role.USER, Role.USER);
+
+        stats.onPostCreated(now);
+        stats.onPostCreated(now.minusDays(1));
+        stats.onCommentCreated(now);
+        stats.onCommentCreated(now);
+        stats.onCommentDeleted(now);
+
+        AdminStatsDTO dto = stats.getStats();
+        assertEquals(2L, dto.getTotalUsers());
+        assertEquals(1L, dto.getBannedUsers());
+        assertEquals(1L, dto.getActiveUsers());
+        assertEquals(1L, dto.getAdminUsers());
+        assertEquals(2L, dto.getNewUsersThisWeek());
+        assertEquals(2L, dto.getTotalPosts());
+        assertEquals(1L, dto.getPostsToday());
+        assertEquals(1L, dto.getTotalComments());
+        assertEquals(1L, dto.getCommentsToday());
+    }
+
+    @Test
+    void deletionsAndPurgesComeOffTheTotals() {
+        StatsCounterService stats = new StatsCounterService(null, null, null);
+        LocalDateTime now = LocalDateTime.now();
+
+        stats.onUserCreated(User.builder().role(Role.ADMIN).createdAt(now).build());
+        stats.onBanChanged(1);
+        stats.onPostCreated(now);
+        stats.onCommentCreated(now);
+        stats.onCommentCreated(now);
+
+        stats.onPostDeleted(now);
+        stats.onCommentDeleted(now);
+        stats.onCommentDeleted(now);
+        stats.onUserDeleted(true, true, now);
+
+        AdminStatsDTO dto = stats.getStats();
+        assertEquals(0L, dto.getTotalUsers());
+        assertEquals(0L, dto.getBannedUsers());
+        assertEquals(0L, dto.getAdminUsers());
+        assertEquals(0L, dto.getNewUsersThisWeek());
+        assertEquals(0L, dto.getTotalPosts());
+        assertEquals(0L, dto.getPostsToday());
+        assertEquals(0L, dto.getTotalComments());
+        assertEquals(0L, dto.getCommentsToday());
+    }
+}
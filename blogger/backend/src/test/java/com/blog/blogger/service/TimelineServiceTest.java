@@ -0,0 +1,39 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimelineServiceTest {
+
+    @Test
+    void timelineKeepsNewestPostsWithinCapacity() {
+        TimelineService.Timeline timeline = new TimelineService.Timeline(3);
+
+        timeline.insert(10L, 1L);
+        timeline.insert(30L, 2L);
+        timeline.insert(20L, 1L);
+        timeline.insert(40L, 2L);
+        timeline.insert(5L, 1L);
+
+        assertEquals(List.of(40L, 30L, 20L), timeline.slice(0, 10));
+        assertEquals(List.of(20L), timeline.slice(2, 10));
+    }
+
+    @Test
+    void timelineRemovesPostsAndAuthors() {
+        TimelineService.Timeline timeline = new TimelineService.Timeline(10);
+        timeline.insert(1L, 1L);
+        timeline.insert(2L, 2L);
+        timeline.insert(3L, 1L);
+        timeline.insert(4L, 2L);
+
+        timeline.remove(4L);
+        assertEquals(List.of(3L, 2L, 1L), timeline.slice(0, 10));
+
+        timeline.removeAuthor(1L);
+        assertEquals(List.of(2L), timeline.slice(0, 10));
+    }
+}
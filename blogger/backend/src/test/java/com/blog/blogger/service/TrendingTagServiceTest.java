@@ -0,0 +1,44 @@
+package com.blog.blogger.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.blog.blogger.dto.TagCountDTO;
+
+class TrendingTagServiceTest {
+
+    @Test
+    void countsTagsInsideTheWindowOnly() {
+        TrendingTagService.SlidingWindow window = new TrendingTagService.SlidingWindow(3);
+        window.add("java", 100, 1, 100);
+        window.add("java", 99, 1, 100);
+        window.add("spring", 100, 1, 100);
+        window.add("old", 97, 1, 100); // outside the window, ignored
+
+        assertEquals(List.of("java", "spring"), tags(window.top(100, 10)));
+        assertEquals(2, window.top(100, 10).get(0).getCount());
+
+        // Two hours later only the hour-100 bucket is still in the window
+        assertEquals(List.of("java", "spring"), tags(window.top(102, 10)));
+        assertEquals(1, window.top(102, 10).get(0).getCount());
+        assertEquals(List.of(), tags(window.top(103, 10)));
+    }
+
+    @Test
+    void removedPostsAreTakenBack() {
+        TrendingTagService.SlidingWindow window = new TrendingTagService.SlidingWindow(24);
+        window.add("java", 10, 1, 10);
+        window.add("java", 10, -1, 10);
+        window.add("docker", 10, 1, 10);
+
+        assertEquals(List.of("docker"), tags(window.top(10, 10)));
+    }
+
+    private static List<String> tags(List<TagCountDTO> counts) {
+        return counts.stream().map(TagCountDTO::getTag).collect(Collectors.toList());
+    }
+}
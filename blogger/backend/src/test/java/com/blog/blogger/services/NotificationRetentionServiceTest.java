@@ -0,0 +1,39 @@
+package com.blog.blogger.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class NotificationRetentionServiceTest {
+
+    @Test
+    void partitionHoldsOneMonth() {
+        assertEquals("PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01'))",
+                NotificationRetentionService.partitionFor(LocalDate.of(2026, 3, 1)));
+        assertEquals("PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01'))",
+                NotificationRetentionService.partitionFor(LocalDate.of(2026, 12, 1)));
+    }
+
+    @Test
+    void cutoffIsTheFirstDayOfTheOldestMonthKept() {
+        assertEquals(LocalDate.of(2026, 4, 1), NotificationRetentionService.cutoff(LocalDate.of(2026, 10, 17), 6));
+        assertEquals(LocalDate.of(2025, 12, 1), NotificationRetentionService.cutoff(LocalDate.of(2026, 2, 28), 2));
+        assertEquals(LocalDate.of(2026, 10, 1), NotificationRetentionService.cutoff(LocalDate.of(2026, 10, 1), 0));
+    }
+
+    @Test
+    void partitioningMustBeEnabled() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        NotificationRetentionService retentionService = new NotificationRetentionService(
+                jdbcTemplate, mock(UnreadCountService.class), 6, 1000, false);
+
+        assertThrows(IllegalStateException.class, retentionService::partitionTable);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,100 @@
+package com.blog.blogger.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.blog.blogger.models.Notification;
+import com.blog.blogger.models.Post;
+import com.blog.blogger.models.User;
+import com.blog.blogger.repositories.NotificationRepository;
+
+class NotificationServiceTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UnreadCountService unreadCountService = mock(UnreadCountService.class);
+    private final NotificationService notificationService = new NotificationService(
+            notificationRepository, unreadCountService, mock(NotificationStreamService.class),
+            mock(ReadWatermarkService.class), mock(NotificationPreferenceService.class));
+
+    private final User author = User.builder().id(1L).username("author").build();
+    private final Post post = Post.builder().id(10L).title("T").author(author).build();
+
+    @Test
+    void firstLikeCreatesANotification() {
+        whenOpen(null);
+
+        notificationService.notifyUserAboutPostLike(post, user(2L, "bob"));
+
+        ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository).save(saved.capture());
+        assertEquals("bob liked your post: T", saved.getValue().getMessage());
+        assertEquals("2", saved.getValue().getSampleActorIds());
+        verify(unreadCountService).add(1L, 1);
+    }
+
+    @Test
+    void rowWithoutActorCountStandsForItsRelatedUser() {
+        Notification open = new Notification();
+        open.setRelatedUserId(2L);
+        open.setActorCount(null);
+        whenOpen(open);
+
+        notificationService.notifyUserAboutPostLike(post, user(3L, "carol"));
+
+        assertEquals(2, open.getActorCount());
+        assertEquals("3,2", open.getSampleActorIds());
+        assertEquals("carol and 1 other liked your post: T", open.getMessage());
+        verify(unreadCountService, never()).add(any(), anyLong());
+    }
+
+    @Test
+    void actorAlreadyAmongTheSamplesIsNotCountedTwice() {
+        Notification open = new Notification();
+        open.setActorCount(2);
+        open.setSampleActorIds("3,2");
+        whenOpen(open);
+
+        notificationService.notifyUserAboutPostLike(post, user(2L, "bob"));
+
+        assertEquals(2, open.getActorCount());
+        assertEquals("2,3", open.getSampleActorIds());
+        assertEquals(2L, open.getRelatedUserId());
+        assertEquals("bob and 1 other liked your post: T", open.getMessage());
+    }
+
+    @Test
+    void samplesAreCappedAndTheOthersCounted() {
+        Notification open = new Notification();
+        open.setActorCount(41);
+        open.setSampleActorIds("4,3,2");
+        whenOpen(open);
+
+        notificationService.notifyUserAboutPostLike(post, user(5L, "eve"));
+
+        assertEquals(42, open.getActorCount());
+        assertEquals("5,4,3", open.getSampleActorIds());
+        assertEquals(NotificationService.MAX_SAMPLE_ACTORS, open.getSampleActorIds().split(",").length);
+        assertEquals("eve and 41 others liked your post: T", open.getMessage());
+    }
+
+    private void whenOpen(Notification open) {
+        when(notificationRepository
+                .findFirstByUserAndTypeAndRelatedPostIdAndIsReadFalseAndIdGreaterThanAndCreatedAtAfterOrderByIdDesc(
+                        any(), any(), any(), any(), any()))
+                .thenReturn(Optional.ofNullable(open));
+    }
+
+    private static User user(Long id, String username) {
+        return User.builder().id(id).username(username).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.blog.blogger.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class UnreadCountServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recountKeepsDeltasAppliedWhileItRuns() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        UnreadCountService unreadCountService = new UnreadCountService(jdbcTemplate, mock(TransactionTemplate.class));
+
+        // Saved counters: user 1 has 5, user 2 has 3, user 3 has 2
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(
+                List.of(new long[] {1, 5}, new long[] {2, 3}, new long[] {3, 2}));
+
+        // The recount finds 5 for user 1 and 4 for user 2 (none for user 3), and user 1
+        // gets a new notification after the versions were taken but before the recount ends
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 2L);
+        when(rs.getLong(2)).thenReturn(5L, 4L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            unreadCountService.add(1L, 1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        unreadCountService.load();
+
+        assertEquals(6, unreadCountService.getUnreadCount(1L));
+        assertEquals(4, unreadCountService.getUnreadCount(2L));
+        assertEquals(0, unreadCountService.getUnreadCount(3L));
+    }
+}
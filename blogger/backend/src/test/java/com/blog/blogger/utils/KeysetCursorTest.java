@@ -0,0 +1,28 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.validation.ValidationException;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000);
+
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(createdAt, 42L).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.blog.blogger.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SortedLongSetTest {
+
+    @Test
+    void keepsIdsSortedAndDistinct() {
+        SortedLongSet set = SortedLongSet.of(new long[] { 9, 3, 7, 3 });
+
+        assertTrue(set.add(5));
+        assertFalse(set.add(7));
+        assertArrayEquals(new long[] { 3, 5, 7, 9 }, set.toArray());
+    }
+
+    @Test
+    void removesAndAnswersMembership() {
+        SortedLongSet set = new SortedLongSet();
+        for (long id = 1; id <= 100; id++) {
+            set.add(id * 2);
+        }
+
+        assertTrue(set.remove(50));
+        assertFalse(set.remove(51));
+        assertFalse(set.contains(50));
+        assertTrue(set.contains(200));
+    }
+}
@@ -472,6 +472,13 @@ export class HomeComponent implements OnInit, OnDestroy {
       this.expandedPosts.delete(postIndex);
     } else {
       this.expandedPosts.add(postIndex);
+      // Feed posts only carry an excerpt, the full content comes with the post itself
+      if (post.content === undefined) {
+        this.postService.getPostById(post.id).subscribe({
+          next: (fullPost: any) => (post.content = fullPost.content),
+          error: (error: any) => console.error('Error loading post:', error),
+        });
+      }
       if (!post.commentsPage) {
         this.loadComments(post, 0, false);
       }
@@ -3,6 +3,7 @@ export interface Post {
   id: number;
   title: string;
   content: string;
+  excerpt?: string;
   author: PostAuthor;
   likeCount: number;
   isHidden: boolean; // important